@@ -0,0 +1,97 @@
+package com.demo.pet.benchmark;
+
+import com.demo.pet.models.Cage;
+import com.demo.pet.models.Pet;
+import com.demo.pet.models.ServiceBooking;
+import com.demo.pet.models.Services;
+import com.demo.pet.models.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detached entities shaped like production rows, shared by the benchmarks.
+ */
+final class BenchmarkData {
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+    private static final String[] SPECIES = {"Dog", "Cat", "Rabbit"};
+    private static final String[] SIZES = {"S", "M", "L"};
+
+    private BenchmarkData() {
+    }
+
+    static User owner(long id) {
+        User user = User.builder()
+                .name("Owner " + id)
+                .email("owner" + id + "@example.com")
+                .phone(String.format("09%08d", id))
+                .roles(User.Roles.OWNER)
+                .build();
+        user.setId(id);
+        return user;
+    }
+
+    static Services service(long id) {
+        Services service = new Services("General health check " + id, Services.CategoryTypes.HEALTH,
+                "General health check performed by our certified staff.", 150000.0, null);
+        service.setId(id);
+        return service;
+    }
+
+    static List<ServiceBooking> bookings(int size) {
+        List<ServiceBooking> bookings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ServiceBooking booking = ServiceBooking.builder()
+                    .startDate(TODAY.plusDays(i % 30))
+                    .endDate(TODAY.plusDays(i % 30 + 1))
+                    .status(ServiceBooking.SubscriptionStatus.values()[i % 4])
+                    .notes("Please call before arrival")
+                    .user(owner(1 + i % 50))
+                    .services(service(1 + i % 12))
+                    .build();
+            booking.setId(1000L + i);
+            booking.setCreatedAt(LocalDateTime.of(2025, 5, 1, 9, 0).plusMinutes(i));
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+
+    static List<Pet> pets(int size) {
+        List<Pet> pets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Pet pet = Pet.builder()
+                    .name("Milo " + i)
+                    .birthDate(TODAY.minusDays(400 + i))
+                    .gender(i % 2 == 0 ? Pet.Gender.MALE : Pet.Gender.FEMALE)
+                    .species(SPECIES[i % SPECIES.length])
+                    .color("Brown")
+                    .healthInfo("Healthy, vaccinated")
+                    .user(owner(1 + i % 50))
+                    .build();
+            pet.setId(2000L + i);
+            pets.add(pet);
+        }
+        return pets;
+    }
+
+    static List<Cage> cages(int size) {
+        List<Pet> pets = pets(size);
+        List<Cage> cages = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Cage.Status status = Cage.Status.values()[i % 3];
+            Cage cage = Cage.builder()
+                    .type(SPECIES[i % SPECIES.length])
+                    .size(SIZES[i % SIZES.length])
+                    .status(status)
+                    .startDate(status == Cage.Status.OCCUPIED ? TODAY : null)
+                    .endDate(status == Cage.Status.OCCUPIED ? TODAY.plusDays(3) : null)
+                    .pet(status == Cage.Status.OCCUPIED ? pets.get(i) : null)
+                    .build();
+            cage.setId(3000L + i);
+            cages.add(cage);
+        }
+        return cages;
+    }
+}
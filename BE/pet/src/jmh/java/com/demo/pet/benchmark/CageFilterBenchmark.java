@@ -0,0 +1,84 @@
+package com.demo.pet.benchmark;
+
+import com.demo.pet.dtos.CageDTO;
+import com.demo.pet.events.DomainEventPublisher;
+import com.demo.pet.models.Cage;
+import com.demo.pet.repositories.CageRepo;
+import com.demo.pet.repositories.PetRepo;
+import com.demo.pet.resilience.DatabaseCircuitBreaker;
+import com.demo.pet.resilience.SingleFlightRegistry;
+import com.demo.pet.resilience.StaleReadCache;
+import com.demo.pet.services.Impl.CageServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * In-memory filtering and mapping in {@link CageServiceImpl}. The repository is a stub, so this
+ * measures the service code only, not the query (the status filter runs in the query).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CageFilterBenchmark {
+    @Param({"50", "500"})
+    int cages;
+
+    private CageServiceImpl cageService;
+
+    @Setup
+    public void setUp() {
+        List<Cage> data = BenchmarkData.cages(cages);
+        // stubOnly: no invocation recording, keeps Mockito out of the allocation profile
+        CageRepo cageRepo = mock(CageRepo.class, withSettings().stubOnly());
+        when(cageRepo.findAll()).thenReturn(data);
+        for (Cage.Status status : Cage.Status.values()) {
+            when(cageRepo.findByStatus(status)).thenReturn(data.stream().filter(c -> c.getStatus() == status).toList());
+        }
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DatabaseCircuitBreaker breaker = new DatabaseCircuitBreaker(meterRegistry, false,
+                20, 10, 0.5, Duration.ofSeconds(2), 0.8, Duration.ofSeconds(10), 3);
+        cageService = new CageServiceImpl(cageRepo,
+                mock(PetRepo.class, withSettings().stubOnly()),
+                mock(DomainEventPublisher.class, withSettings().stubOnly()),
+                // No reuse window: every call runs the filter instead of returning the previous result
+                new SingleFlightRegistry(meterRegistry, Duration.ZERO, 16),
+                // No entries: the benchmark measures the filter, not the fallback copy
+                new StaleReadCache(breaker, meterRegistry, Duration.ZERO, 0));
+    }
+
+    @Benchmark
+    public List<CageDTO> getAllCages() {
+        return cageService.getAllCages();
+    }
+
+    @Benchmark
+    public List<CageDTO> getCagesByStatus() {
+        return cageService.getCagesByStatus("available");
+    }
+
+    @Benchmark
+    public List<CageDTO> getCagesByTypeAndSize() {
+        return cageService.getCagesByTypeAndSize("dog", "m");
+    }
+}
@@ -0,0 +1,53 @@
+package com.demo.pet.benchmark;
+
+import com.demo.pet.dtos.PetDTO;
+import com.demo.pet.dtos.ServiceBookingDTO;
+import com.demo.pet.models.Pet;
+import com.demo.pet.models.ServiceBooking;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping as done by every list endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+    @Param({"1", "100"})
+    int size;
+
+    private List<ServiceBooking> bookings;
+    private List<Pet> pets;
+
+    @Setup
+    public void setUp() {
+        bookings = BenchmarkData.bookings(size);
+        pets = BenchmarkData.pets(size);
+    }
+
+    @Benchmark
+    public List<ServiceBookingDTO> serviceBookingFromEntity() {
+        return bookings.stream().map(ServiceBookingDTO::fromEntity).toList();
+    }
+
+    @Benchmark
+    public List<PetDTO> petFromEntity() {
+        return pets.stream().map(PetDTO::fromEntity).toList();
+    }
+}
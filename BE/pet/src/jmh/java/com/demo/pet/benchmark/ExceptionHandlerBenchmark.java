@@ -0,0 +1,61 @@
+package com.demo.pet.benchmark;
+
+import com.demo.pet.config.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The "not found" error path: build the exception the services throw, resolve the
+ * {@link GlobalExceptionHandler} method the way Spring MVC does, invoke it and write the body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+    private GlobalExceptionHandler handler;
+    private ExceptionHandlerMethodResolver resolver;
+    private ObjectMapper objectMapper;
+    private long id;
+
+    @Setup
+    public void setUp() {
+        handler = new GlobalExceptionHandler();
+        resolver = new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public byte[] runtimeExceptionNotFound() throws Exception {
+        return handle(new RuntimeException("Booking not found with id: " + (++id)));
+    }
+
+    @Benchmark
+    public byte[] entityNotFound() throws Exception {
+        return handle(new EntityNotFoundException("Cage not found with id: " + (++id)));
+    }
+
+    private byte[] handle(Exception e) throws Exception {
+        Method method = resolver.resolveMethod(e);
+        ResponseEntity<?> response = (ResponseEntity<?>) method.invoke(handler, e);
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+}
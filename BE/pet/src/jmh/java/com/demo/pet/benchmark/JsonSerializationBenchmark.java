@@ -0,0 +1,64 @@
+package com.demo.pet.benchmark;
+
+import com.demo.pet.dtos.CageDTO;
+import com.demo.pet.dtos.PetDTO;
+import com.demo.pet.dtos.ServiceBookingDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of typical list payloads, with the same defaults Spring Boot applies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    @Param({"20", "200"})
+    int size;
+
+    private ObjectMapper objectMapper;
+    private List<ServiceBookingDTO> bookings;
+    private List<PetDTO> pets;
+    private List<CageDTO> cages;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        bookings = BenchmarkData.bookings(size).stream().map(ServiceBookingDTO::fromEntity).toList();
+        pets = BenchmarkData.pets(size).stream().map(PetDTO::fromEntity).toList();
+        cages = BenchmarkData.cages(size).stream().map(CageDTO::fromEntity).toList();
+    }
+
+    @Benchmark
+    public byte[] bookingList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] petList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pets);
+    }
+
+    @Benchmark
+    public byte[] cageList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cages);
+    }
+}
@@ -0,0 +1,318 @@
+package com.demo.pet.loadtest;
+
+import com.demo.pet.PetApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Starts {@link PetApplication} on an embedded H2 database (MySQL mode, Flyway schema) and
+ * drives it over HTTP at a fixed arrival rate (open model): request {@code i} is scheduled at
+ * {@code start + i / rate} whether or not earlier requests have returned, and its latency is
+ * measured from that scheduled time.
+ * <p>
+ * Options are {@code --loadtest.*=value} arguments; every other {@code --key=value} is passed to
+ * the application, e.g. {@code --spring.datasource.url=...} to test against MySQL instead.
+ * <pre>
+ * mvn -Ploadtest -DskipTests verify -Dloadtest.args="--loadtest.rate=300 --loadtest.duration-seconds=120"
+ * </pre>
+ */
+public final class LoadTestDriver {
+    private static final String DEFAULT_MIX = "my-bookings=25,my-pets=10,my-records=10,services=10,"
+            + "create-booking=20,patch-status=10,admin-bookings=10,admin-users=5";
+    private static final String PASSWORD = "loadtest123";
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String baseUrl;
+    private final int rate;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final int owners;
+    private final int maxInFlight;
+    private final Path output;
+    private final Map<String, Integer> mix;
+    private final ExecutorService clientExecutor;
+
+    private final Map<String, Function<ThreadLocalRandom, CompletableFuture<HttpResponse<String>>>> routes = new LinkedHashMap<>();
+    private final Map<String, RouteStats> stats = new LinkedHashMap<>();
+    private final List<Session> ownerSessions = new ArrayList<>();
+    private final List<Long> serviceIds = new ArrayList<>();
+    private final AtomicLongArray recentBookingIds = new AtomicLongArray(4096);
+    private final AtomicLong bookingCount = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private Session admin;
+    private Session staff;
+
+    private LoadTestDriver(String baseUrl, Map<String, String> options) {
+        this.baseUrl = baseUrl;
+        this.rate = Integer.parseInt(options.getOrDefault("loadtest.rate", "200"));
+        this.warmupSeconds = Integer.parseInt(options.getOrDefault("loadtest.warmup-seconds", "15"));
+        this.durationSeconds = Integer.parseInt(options.getOrDefault("loadtest.duration-seconds", "60"));
+        this.owners = Integer.parseInt(options.getOrDefault("loadtest.owners", "20"));
+        this.maxInFlight = Integer.parseInt(options.getOrDefault("loadtest.max-in-flight", "2000"));
+        this.output = Path.of(options.getOrDefault("loadtest.output", "target/loadtest"));
+        this.mix = parseMix(options.getOrDefault("loadtest.mix", DEFAULT_MIX));
+        this.clientExecutor = Executors.newFixedThreadPool(
+                Integer.parseInt(options.getOrDefault("loadtest.client-threads", "16")), r -> {
+                    Thread t = new Thread(r, "loadtest-client");
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+
+        // System properties override application.properties; explicit --key=value wins over the H2 defaults
+        options.forEach((key, value) -> {
+            if (!key.startsWith("loadtest.")) {
+                System.setProperty(key, value);
+            }
+        });
+        setDefault("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        setDefault("spring.datasource.username", "sa");
+        setDefault("spring.datasource.password", "");
+        setDefault("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        setDefault("spring.jpa.show-sql", "false");
+        setDefault("server.port", "0");
+        setDefault("logging.level.root", "WARN");
+
+        ConfigurableApplicationContext app = SpringApplication.run(PetApplication.class);
+        try {
+            String port = app.getEnvironment().getProperty("local.server.port");
+            LoadTestDriver driver = new LoadTestDriver("http://localhost:" + port, options);
+            driver.setUp();
+            driver.run();
+            driver.report();
+        } finally {
+            app.close();
+        }
+        System.exit(0);
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    private void setUp() throws Exception {
+        admin = Session.login(baseUrl, clientExecutor, "admin@example.com", "admin123");
+        staff = Session.login(baseUrl, clientExecutor, "staff@example.com", "staff123");
+
+        String[] categories = {"HEALTH", "CARE", "MEDICAL"};
+        for (int i = 0; i < categories.length; i++) {
+            JsonNode service = body(admin.postJson("/api/services", String.format(
+                    "{\"service_name\":\"Load test service %d\",\"category\":\"%s\",\"description\":\"Load test\",\"price\":%d}",
+                    i, categories[i], 100000 + i * 50000)).join());
+            serviceIds.add(service.get("id").asLong());
+        }
+
+        long runId = System.currentTimeMillis() % 10_000;
+        for (int i = 0; i < owners; i++) {
+            String email = "lt-owner-" + runId + "-" + i + "@example.com";
+            HttpResponse<String> registered = Session.register(baseUrl, clientExecutor, String.format(
+                    "{\"user_name\":\"Load Owner %d\",\"password\":\"%s\",\"phone\":\"08%04d%04d\",\"email\":\"%s\"}",
+                    i, PASSWORD, runId, i, email));
+            if (registered.statusCode() != 200) {
+                throw new IllegalStateException("Register failed: " + registered.body());
+            }
+            Session owner = Session.login(baseUrl, clientExecutor, email, PASSWORD);
+            owner.userId(body(owner.get("/api/users/my-info").join()).get("id").asLong());
+            body(owner.postJson("/api/pets", String.format(
+                    "{\"name\":\"Load Pet %d\",\"birth_date\":\"2021-03-01\",\"gender\":\"MALE\",\"species\":\"Dog\","
+                            + "\"color\":\"Brown\",\"health_info\":\"Healthy\",\"user_id\":%d}", i, owner.userId())).join());
+            for (int b = 0; b < 3; b++) {
+                rememberBooking(body(createBooking(owner, ThreadLocalRandom.current()).join()));
+            }
+            ownerSessions.add(owner);
+        }
+
+        routes.put("my-bookings", rnd -> randomOwner(rnd).get("/api/bookings/my-bookings"));
+        routes.put("my-pets", rnd -> randomOwner(rnd).get("/api/pets/my-pets"));
+        routes.put("my-records", rnd -> randomOwner(rnd).get("/api/records/my-records"));
+        routes.put("services", rnd -> randomOwner(rnd).get("/api/services"));
+        routes.put("create-booking", rnd -> createBooking(randomOwner(rnd), rnd).thenApply(response -> {
+            if (response.statusCode() == 200) {
+                rememberBooking(parse(response.body()));
+            }
+            return response;
+        }));
+        routes.put("patch-status", rnd -> staff.patch("/api/bookings/" + randomBookingId(rnd)
+                + "/status?status=" + (rnd.nextBoolean() ? "ACCEPTED" : "COMPLETED")));
+        routes.put("admin-bookings", rnd -> admin.get("/api/bookings"));
+        routes.put("admin-users", rnd -> admin.get("/api/users"));
+        for (String route : mix.keySet()) {
+            if (!routes.containsKey(route)) {
+                throw new IllegalArgumentException("Unknown route in loadtest.mix: " + route + " (known: " + routes.keySet() + ")");
+            }
+            stats.put(route, new RouteStats(route));
+        }
+        System.out.printf("Load test against %s: %d req/s, %d s warm-up + %d s measured, mix %s%n",
+                baseUrl, rate, warmupSeconds, durationSeconds, mix);
+    }
+
+    private void run() throws InterruptedException {
+        String[] picks = expandMix();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            String route = picks[rnd.nextInt(picks.length)];
+            boolean measured = intended >= measureFrom;
+            if (inFlight.get() >= maxInFlight) {
+                // The server has fallen so far behind that the driver would only measure its own queue
+                if (measured) {
+                    dropped.increment();
+                }
+                continue;
+            }
+
+            inFlight.incrementAndGet();
+            long sent = System.nanoTime();
+            routes.get(route).apply(rnd).whenComplete((response, error) -> {
+                long done = System.nanoTime();
+                inFlight.decrementAndGet();
+                if (measured) {
+                    stats.get(route).record(intended, sent, done,
+                            error == null && response.statusCode() >= 200 && response.statusCode() < 300);
+                }
+            });
+        }
+
+        // Let outstanding requests finish so slow tails are recorded, not lost
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(50);
+        }
+    }
+
+    private void report() throws IOException {
+        double seconds = durationSeconds;
+        PrintStream out = System.out;
+        Histogram all = new Histogram(TimeUnit.MINUTES.toMicros(2), 3);
+        RouteStats total = new RouteStats("ALL");
+
+        Files.createDirectories(output);
+        List<String> csv = new ArrayList<>();
+        csv.add("route,count,errors,rps,p50_us,p90_us,p99_us,p999_us,max_us,service_p99_us");
+
+        out.println();
+        out.printf("Target %d req/s, measured %d s, dropped (in-flight > %d): %d%n", rate, durationSeconds, maxInFlight, dropped.sum());
+        out.println("Latency from scheduled send time (coordinated-omission corrected); svc = from actual send");
+        RouteStats.printHeader(out);
+        for (RouteStats route : stats.values()) {
+            route.print(out, seconds);
+            csv.add(route.csv(seconds));
+            all.add(route.responseTime);
+            total.responseTime.add(route.responseTime);
+            total.serviceTime.add(route.serviceTime);
+            total.errors.add(route.errors.sum());
+            try (PrintStream hgrm = new PrintStream(output.resolve(route.route + ".hgrm").toFile())) {
+                route.responseTime.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        total.print(out, seconds);
+        csv.add(total.csv(seconds));
+        Files.write(output.resolve("summary.csv"), csv);
+        out.println("Per-route histograms and summary.csv written to " + output.toAbsolutePath());
+    }
+
+    private CompletableFuture<HttpResponse<String>> createBooking(Session owner, ThreadLocalRandom rnd) {
+        LocalDate start = LocalDate.now().plusDays(1 + rnd.nextInt(60));
+        return owner.postJson("/api/bookings", String.format(
+                "{\"start_date\":\"%s\",\"end_date\":\"%s\",\"notes\":\"Load test booking\",\"user_id\":%d,\"service_id\":%d}",
+                start, start.plusDays(1), owner.userId(), serviceIds.get(rnd.nextInt(serviceIds.size()))));
+    }
+
+    private void rememberBooking(JsonNode booking) {
+        if (booking != null && booking.hasNonNull("id")) {
+            recentBookingIds.set((int) (bookingCount.getAndIncrement() % recentBookingIds.length()), booking.get("id").asLong());
+        }
+    }
+
+    private long randomBookingId(ThreadLocalRandom rnd) {
+        int known = (int) Math.min(bookingCount.get(), recentBookingIds.length());
+        return recentBookingIds.get(rnd.nextInt(known));
+    }
+
+    private Session randomOwner(ThreadLocalRandom rnd) {
+        return ownerSessions.get(rnd.nextInt(ownerSessions.size()));
+    }
+
+    private String[] expandMix() {
+        List<String> picks = new ArrayList<>();
+        mix.forEach((route, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                picks.add(route);
+            }
+        });
+        return picks.toArray(String[]::new);
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] kv = part.trim().split("=");
+            mix.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+
+    private static JsonNode body(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Setup request failed: " + response.statusCode() + " " + response.body());
+        }
+        return parse(response.body());
+    }
+
+    private static JsonNode parse(String body) {
+        try {
+            return JSON.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
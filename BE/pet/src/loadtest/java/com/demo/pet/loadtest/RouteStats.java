@@ -0,0 +1,63 @@
+package com.demo.pet.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency of one route, in microseconds.
+ * <p>
+ * {@code responseTime} is measured from the moment the request was <em>scheduled</em> to be sent,
+ * so time spent queued behind a stalled driver or server counts (coordinated-omission
+ * corrected). {@code serviceTime} is measured from the actual send and is kept for comparison.
+ */
+final class RouteStats {
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    final String route;
+    final Histogram responseTime = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    final LongAdder errors = new LongAdder();
+
+    RouteStats(String route) {
+        this.route = route;
+    }
+
+    void record(long intendedNanos, long sentNanos, long doneNanos, boolean ok) {
+        responseTime.recordValue(Math.min(HIGHEST_MICROS, (doneNanos - intendedNanos) / 1000));
+        serviceTime.recordValue(Math.min(HIGHEST_MICROS, (doneNanos - sentNanos) / 1000));
+        if (!ok) {
+            errors.increment();
+        }
+    }
+
+    static void printHeader(PrintStream out) {
+        out.printf("%-16s %9s %7s %9s %9s %9s %9s %9s %9s %11s%n",
+                "route", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+    }
+
+    void print(PrintStream out, double seconds) {
+        long count = responseTime.getTotalCount();
+        out.printf("%-16s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %11.2f%n",
+                route, count, errors.sum(), count / seconds,
+                ms(responseTime.getValueAtPercentile(50)), ms(responseTime.getValueAtPercentile(90)),
+                ms(responseTime.getValueAtPercentile(99)), ms(responseTime.getValueAtPercentile(99.9)),
+                ms(responseTime.getMaxValue()), ms(serviceTime.getValueAtPercentile(99)));
+    }
+
+    String csv(double seconds) {
+        long count = responseTime.getTotalCount();
+        return String.join(",", route, Long.toString(count), Long.toString(errors.sum()),
+                String.format("%.1f", count / seconds),
+                Long.toString(responseTime.getValueAtPercentile(50)), Long.toString(responseTime.getValueAtPercentile(90)),
+                Long.toString(responseTime.getValueAtPercentile(99)), Long.toString(responseTime.getValueAtPercentile(99.9)),
+                Long.toString(responseTime.getMaxValue()), Long.toString(serviceTime.getValueAtPercentile(99)));
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
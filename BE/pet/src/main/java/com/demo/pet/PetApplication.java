@@ -2,12 +2,19 @@ package com.demo.pet;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PetApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(PetApplication.class, args);
+		SpringApplication application = new SpringApplication(PetApplication.class);
+		// Ghi lại từng bước khởi động (bean, phase) cho /actuator/startup và StartupReportLogger
+		application.setApplicationStartup(new BufferingApplicationStartup(
+				Integer.getInteger("startup.buffer-capacity", 10000)));
+		application.run(args);
 	}
 
 }
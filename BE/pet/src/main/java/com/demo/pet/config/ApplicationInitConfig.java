@@ -9,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
@@ -16,10 +17,12 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Slf4j
 public class ApplicationInitConfig {
+    public static final int ORDER = 0;
 
     PasswordEncoder passwordEncoder;
 
     @Bean
+    @Order(ORDER)
     public ApplicationRunner applicationRunner(UserRepo userRepo) {
         return args -> {
             createUserIfNotExist(userRepo, "admin@example.com", "admin123", "Admin", "0123456789", User.Roles.ADMIN);
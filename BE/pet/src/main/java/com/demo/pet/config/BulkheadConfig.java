@@ -0,0 +1,69 @@
+package com.demo.pet.config;
+
+import com.demo.pet.resilience.Bulkhead;
+import com.demo.pet.resilience.WorkloadClass;
+import com.demo.pet.resilience.WorkloadInterceptor;
+import com.demo.pet.resilience.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulkheads per {@link WorkloadClass}: a cap on concurrent requests and a Hikari pool of its own
+ * for each class. Every pool takes the usual {@code spring.datasource.hikari.*} settings first,
+ * then {@code app.bulkhead.<class>.pool.*} on top (size, connection timeout, ...).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.bulkhead.enabled", havingValue = "true")
+public class BulkheadConfig implements WebMvcConfigurer {
+    private final Map<WorkloadClass, Bulkhead> bulkheads = new EnumMap<>(WorkloadClass.class);
+
+    public BulkheadConfig(Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            String prefix = "app.bulkhead." + key(workload);
+            int maxConcurrent = binder.bind(prefix + ".max-concurrent", Integer.class).orElse(50);
+            Duration maxWait = binder.bind(prefix + ".max-wait", Duration.class).orElse(Duration.ZERO);
+            bulkheads.put(workload, new Bulkhead(workload, maxConcurrent, maxWait, meterRegistry));
+        }
+    }
+
+    @Bean
+    public WorkloadRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+                                                MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        Map<WorkloadClass, HikariDataSource> pools = new EnumMap<>(WorkloadClass.class);
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            binder.bind("app.bulkhead." + key(workload) + ".pool", Bindable.ofInstance(pool));
+            pool.setPoolName(key(workload));
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.put(workload, pool);
+        }
+        return new WorkloadRoutingDataSource(pools);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new WorkloadInterceptor(bulkheads)).addPathPatterns("/api/**");
+    }
+
+    private static String key(WorkloadClass workload) {
+        return workload.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -13,11 +13,17 @@ import java.util.Map;
 public class JsonAuthenticationFailureHandler implements AuthenticationFailureHandler {
 
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LoginAttemptThrottle throttle;
+
+    public JsonAuthenticationFailureHandler(LoginAttemptThrottle throttle) {
+        this.throttle = throttle;
+    }
 
     @Override
     public void onAuthenticationFailure(HttpServletRequest request,
                                         HttpServletResponse response,
                                         AuthenticationException exception) throws IOException {
+        throttle.recordFailure(request.getParameter("username"), request.getRemoteAddr());
 
         Map<String, Object> data = new HashMap<>();
         data.put("message", "Login failed");
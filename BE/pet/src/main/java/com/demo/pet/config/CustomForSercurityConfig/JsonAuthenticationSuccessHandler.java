@@ -14,11 +14,17 @@ import java.util.Map;
 public class JsonAuthenticationSuccessHandler implements AuthenticationSuccessHandler {
 
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LoginAttemptThrottle throttle;
+
+    public JsonAuthenticationSuccessHandler(LoginAttemptThrottle throttle) {
+        this.throttle = throttle;
+    }
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request,
                                         HttpServletResponse response,
                                         Authentication authentication) throws IOException, ServletException {
+        throttle.recordSuccess(authentication.getName());
 
         Map<String, Object> data = new HashMap<>();
         data.put("message", "Login successful");
@@ -0,0 +1,223 @@
+package com.demo.pet.config.CustomForSercurityConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks failed logins per username and per client IP in sliding windows and decides
+ * whether a new attempt may go through to the authentication manager.
+ * <p>
+ * Everything is lock-free (CAS on atomics inside a {@link ConcurrentHashMap}) and each map
+ * is capped, so a credential-stuffing run cannot grow memory without bound.
+ */
+@Component
+@Slf4j
+public class LoginAttemptThrottle {
+
+    private final Policy usernamePolicy;
+    private final Policy ipPolicy;
+    private final long windowMillis;
+    private final int buckets;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<String, AttemptWindow> byUsername = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AttemptWindow> byIp = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean(false);
+
+    private final Counter blockedByUsername;
+    private final Counter blockedByIp;
+    private final Counter lockouts;
+    private final Counter untracked;
+
+    public LoginAttemptThrottle(
+            MeterRegistry meterRegistry,
+            @Value("${app.login-throttle.window:15m}") Duration window,
+            @Value("${app.login-throttle.buckets:15}") int buckets,
+            @Value("${app.login-throttle.max-entries:100000}") int maxEntries,
+            @Value("${app.login-throttle.username.delay-after:3}") int usernameDelayAfter,
+            @Value("${app.login-throttle.username.lockout-after:10}") int usernameLockoutAfter,
+            @Value("${app.login-throttle.ip.delay-after:20}") int ipDelayAfter,
+            @Value("${app.login-throttle.ip.lockout-after:100}") int ipLockoutAfter,
+            @Value("${app.login-throttle.base-delay:1s}") Duration baseDelay,
+            @Value("${app.login-throttle.max-delay:30s}") Duration maxDelay,
+            @Value("${app.login-throttle.lockout-duration:15m}") Duration lockoutDuration) {
+        this.windowMillis = window.toMillis();
+        this.buckets = buckets;
+        this.maxEntries = maxEntries;
+        this.usernamePolicy = new Policy(usernameDelayAfter, usernameLockoutAfter,
+                baseDelay.toMillis(), maxDelay.toMillis(), lockoutDuration.toMillis());
+        this.ipPolicy = new Policy(ipDelayAfter, ipLockoutAfter,
+                baseDelay.toMillis(), maxDelay.toMillis(), lockoutDuration.toMillis());
+
+        this.blockedByUsername = Counter.builder("login.throttle.blocked")
+                .description("Login attempts rejected before authentication")
+                .tag("scope", "username").register(meterRegistry);
+        this.blockedByIp = Counter.builder("login.throttle.blocked")
+                .description("Login attempts rejected before authentication")
+                .tag("scope", "ip").register(meterRegistry);
+        this.lockouts = Counter.builder("login.throttle.lockouts")
+                .description("Temporary lockouts started").register(meterRegistry);
+        this.untracked = Counter.builder("login.throttle.untracked")
+                .description("Failures not tracked because the throttle table was full").register(meterRegistry);
+        meterRegistry.gauge("login.throttle.tracked.usernames", byUsername, ConcurrentHashMap::size);
+        meterRegistry.gauge("login.throttle.tracked.ips", byIp, ConcurrentHashMap::size);
+    }
+
+    /**
+     * @return milliseconds the caller has to wait before trying again, or 0 if the attempt may proceed
+     */
+    public long checkAllowed(String username, String ip) {
+        long now = System.currentTimeMillis();
+
+        long ipWait = ip == null ? 0 : remaining(byIp.get(ip), now);
+        if (ipWait > 0) {
+            blockedByIp.increment();
+            return ipWait;
+        }
+
+        long userWait = remaining(byUsername.get(normalize(username)), now);
+        if (userWait > 0) {
+            blockedByUsername.increment();
+            return userWait;
+        }
+        return 0;
+    }
+
+    public void recordFailure(String username, String ip) {
+        long now = System.currentTimeMillis();
+        if (username != null && !username.isBlank()) {
+            registerFailure(byUsername, normalize(username), usernamePolicy, now);
+        }
+        if (ip != null) {
+            registerFailure(byIp, ip, ipPolicy, now);
+        }
+    }
+
+    // A successful login clears the username history; the IP window keeps counting
+    public void recordSuccess(String username) {
+        if (username != null) {
+            byUsername.remove(normalize(username));
+        }
+    }
+
+    private void registerFailure(ConcurrentHashMap<String, AttemptWindow> table, String key, Policy policy, long now) {
+        AttemptWindow window = table.get(key);
+        if (window == null) {
+            if (table.size() >= maxEntries) {
+                sweep(table, now);
+                if (table.size() >= maxEntries) {
+                    untracked.increment();
+                    return;
+                }
+            }
+            window = table.computeIfAbsent(key, k -> new AttemptWindow(buckets, windowMillis / buckets));
+        }
+
+        int failures = window.increment(now);
+        long wait = policy.waitAfter(failures);
+        if (wait > 0) {
+            window.blockUntil(now + wait);
+            if (failures >= policy.lockoutAfter) {
+                lockouts.increment();
+                log.warn("Login lockout for {} after {} failures", key, failures);
+            }
+        }
+    }
+
+    // Only one thread sweeps at a time; the others skip instead of waiting
+    private void sweep(ConcurrentHashMap<String, AttemptWindow> table, long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            table.entrySet().removeIf(e -> e.getValue().isIdle(now));
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private static long remaining(AttemptWindow window, long now) {
+        return window == null ? 0 : Math.max(0, window.blockedUntil.get() - now);
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Policy(int delayAfter, int lockoutAfter, long baseDelayMillis, long maxDelayMillis,
+                          long lockoutMillis) {
+        long waitAfter(int failures) {
+            if (failures >= lockoutAfter) {
+                return lockoutMillis;
+            }
+            if (failures < delayAfter) {
+                return 0;
+            }
+            // 1s, 2s, 4s, ... capped at maxDelay
+            int exponent = Math.min(failures - delayAfter, 20);
+            return Math.min(baseDelayMillis << exponent, maxDelayMillis);
+        }
+    }
+
+    /**
+     * Ring of time buckets. Each slot packs the bucket epoch (high bits) and the failure count
+     * (low bits) into one long so a slot can be rolled over and incremented with a single CAS.
+     * Public so tests can drive it with a fake clock.
+     */
+    public static final class AttemptWindow {
+        private static final int COUNT_BITS = 20;
+        private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+        private final AtomicLongArray slots;
+        private final long bucketMillis;
+        private final AtomicLong blockedUntil = new AtomicLong();
+
+        public AttemptWindow(int buckets, long bucketMillis) {
+            this.slots = new AtomicLongArray(buckets);
+            this.bucketMillis = Math.max(1, bucketMillis);
+        }
+
+        public int increment(long now) {
+            long epoch = now / bucketMillis;
+            int idx = (int) (epoch % slots.length());
+            while (true) {
+                long current = slots.get(idx);
+                long count = (current >>> COUNT_BITS) == epoch ? current & COUNT_MASK : 0;
+                long next = (epoch << COUNT_BITS) | Math.min(count + 1, COUNT_MASK);
+                if (slots.compareAndSet(idx, current, next)) {
+                    break;
+                }
+            }
+            return sum(epoch);
+        }
+
+        void blockUntil(long until) {
+            blockedUntil.accumulateAndGet(until, Math::max);
+        }
+
+        public boolean isIdle(long now) {
+            return blockedUntil.get() <= now && sum(now / bucketMillis) == 0;
+        }
+
+        private int sum(long currentEpoch) {
+            long total = 0;
+            for (int i = 0; i < slots.length(); i++) {
+                long slot = slots.get(i);
+                if (currentEpoch - (slot >>> COUNT_BITS) < slots.length()) {
+                    total += slot & COUNT_MASK;
+                }
+            }
+            return (int) Math.min(total, Integer.MAX_VALUE);
+        }
+    }
+}
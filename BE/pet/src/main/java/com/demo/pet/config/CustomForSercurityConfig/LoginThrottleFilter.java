@@ -0,0 +1,60 @@
+package com.demo.pet.config.CustomForSercurityConfig;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rejects throttled login attempts before they reach the authentication manager,
+ * so a blocked attempt costs neither a user lookup nor a BCrypt verify.
+ */
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LoginAttemptThrottle throttle;
+    private final String loginUrl;
+
+    public LoginThrottleFilter(LoginAttemptThrottle throttle, String loginUrl) {
+        this.throttle = throttle;
+        this.loginUrl = loginUrl;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equalsIgnoreCase(request.getMethod())
+                || !loginUrl.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long waitMillis = throttle.checkAllowed(request.getParameter("username"), request.getRemoteAddr());
+        if (waitMillis <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, (waitMillis + 999) / 1000);
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("message", "Too many failed login attempts, try again later");
+        data.put("error", "Too Many Requests");
+        data.put("retry_after_seconds", retryAfterSeconds);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), data);
+    }
+}
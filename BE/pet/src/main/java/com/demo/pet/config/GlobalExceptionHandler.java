@@ -1,30 +1,87 @@
 package com.demo.pet.config;
 
+import com.demo.pet.events.StreamLimitExceededException;
+import com.demo.pet.resilience.BulkheadFullException;
+import com.demo.pet.resilience.DatabaseUnavailableException;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
+    // Write path gắn khóa ngoại bằng getReferenceById, id không tồn tại bị FK chặn khi INSERT/UPDATE.
+    // Nhận biết theo cột khóa ngoại: database baseline từ ddl-auto có tên constraint do Hibernate sinh (FK...)
+    private static final Map<String, String> MISSING_REFERENCE_MESSAGES = Map.of(
+            "user_id", "User not found with the given user_id",
+            "pet_id", "Pet not found with the given pet_id",
+            "service_id", "Service not found with the given service_id");
+    // MySQL: "... FOREIGN KEY (`user_id`) REFERENCES `users` (`id`))", H2: "... FOREIGN KEY(user_id) REFERENCES ..."
+    private static final Pattern FOREIGN_KEY_COLUMN = Pattern.compile("foreign key\\s*\\(\\W*(\\w+)");
+    private static final int MYSQL_NO_REFERENCED_ROW = 1452;
+    private static final int H2_REFERENCED_ROW_MISSING = 23506;
+    private static final String HIBERNATE_TRANSACTION_TIMEOUT = "transaction timeout expired";
 
     // Format JSON thống nhất chung cho các lỗi nhỏ
     private ResponseEntity<Map<String, Object>> buildErrorResponse(HttpStatus status, String message) {
         Map<String, Object> error = new HashMap<>();
         error.put("status", status.value());
         error.put("message", message);
-        return ResponseEntity.status(status).body(error);
+        // Content-Type cố định: request SSE (Accept: text/event-stream) vẫn nhận được body lỗi
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(error);
+    }
+
+    /**
+     * Message for a child row pointing at a parent that does not exist, or null for any other
+     * violation (duplicates, or a parent still referenced on delete, stay 400).
+     */
+    private static String missingReferenceMessage(DataIntegrityViolationException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql) {
+                if (!isMissingReferencedRow(sql)) {
+                    return null;
+                }
+                // Cột lấy từ message của driver; trình trích xuất constraint của dialect không ổn định giữa các DB
+                Matcher column = FOREIGN_KEY_COLUMN.matcher(String.valueOf(sql.getMessage()).toLowerCase(Locale.ROOT));
+                return column.find() ? MISSING_REFERENCE_MESSAGES.get(column.group(1)) : null;
+            }
+        }
+        return null;
+    }
+
+    // SQLState lớp 23 (integrity constraint) và mã lỗi "không có dòng cha" của MySQL / H2
+    private static boolean isMissingReferencedRow(SQLException sql) {
+        String state = sql.getSQLState();
+        return state != null && state.startsWith("23")
+                && (sql.getErrorCode() == MYSQL_NO_REFERENCED_ROW || sql.getErrorCode() == H2_REFERENCED_ROW_MISSING);
+    }
+
+    // Client đã ngắt kết nối (thường là /api/bookings/stream): không còn response để ghi
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleClientGone(AsyncRequestNotUsableException e) {
     }
 
     @ExceptionHandler(Exception.class)
@@ -35,9 +92,31 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, Object>> handleRuntimeException(RuntimeException e) {
+        // Timeout bị bọc trong exception khác (JpaSystemException, ...): chỉ 504 khi thật sự có timeout trong chuỗi cause
+        if (isTimeout(e)) {
+            return handleTimeout(e);
+        }
         return buildErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
     }
 
+    private static boolean isTimeout(Throwable e) {
+        int depth = 0;
+        for (Throwable t = e; t != null && depth < 20; t = t.getCause(), depth++) {
+            if (t instanceof QueryTimeoutException
+                    || t instanceof TransactionTimedOutException
+                    || t instanceof SQLTimeoutException
+                    || t instanceof jakarta.persistence.QueryTimeoutException
+                    || t instanceof jakarta.persistence.LockTimeoutException
+                    || t instanceof org.hibernate.QueryTimeoutException
+                    || t instanceof org.hibernate.exception.LockTimeoutException
+                    // Hibernate báo hết thời gian transaction bằng TransactionException chung
+                    || t instanceof org.hibernate.TransactionException && HIBERNATE_TRANSACTION_TIMEOUT.equals(t.getMessage())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(IllegalArgumentException e) {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
@@ -61,6 +140,10 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<Map<String, Object>> handleDataIntegrityViolation(DataIntegrityViolationException e) {
+        String missingReference = missingReferenceMessage(e);
+        if (missingReference != null) {
+            return buildErrorResponse(HttpStatus.NOT_FOUND, missingReference);
+        }
         return buildErrorResponse(HttpStatus.BAD_REQUEST, "Data integrity violation: " + e.getMostSpecificCause().getMessage());
     }
 
@@ -85,4 +168,50 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Map<String, Object>> handleMissingParams(MissingServletRequestParameterException e) {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, "Missing request parameter: " + e.getParameterName());
     }
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<Map<String, Object>> handleBulkheadFull(BulkheadFullException e) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    @ExceptionHandler(StreamLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleStreamLimit(StreamLimitExceededException e) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(error);
+    }
+
+    @ExceptionHandler({QueryTimeoutException.class, TransactionTimedOutException.class})
+    public ResponseEntity<Map<String, Object>> handleTimeout(RuntimeException e) {
+        return buildErrorResponse(HttpStatus.GATEWAY_TIMEOUT, "The request took too long and was cancelled, try again shortly");
+    }
+
+    @ExceptionHandler({DatabaseUnavailableException.class, CannotCreateTransactionException.class,
+            DataAccessResourceFailureException.class})
+    public ResponseEntity<Map<String, Object>> handleDatabaseUnavailable(RuntimeException e) {
+        long retryAfter = 1;
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof DatabaseUnavailableException unavailable) {
+                retryAfter = unavailable.getRetryAfterSeconds();
+                break;
+            }
+        }
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.put("message", "The database is unavailable, try again shortly");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(error);
+    }
 }
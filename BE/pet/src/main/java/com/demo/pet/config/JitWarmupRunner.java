@@ -0,0 +1,190 @@
+package com.demo.pet.config;
+
+import com.demo.pet.dtos.CageDTO;
+import com.demo.pet.dtos.PetDTO;
+import com.demo.pet.dtos.ServiceBookingDTO;
+import com.demo.pet.dtos.ServicesDTO;
+import com.demo.pet.models.Cage;
+import com.demo.pet.models.Pet;
+import com.demo.pet.models.ServiceBooking;
+import com.demo.pet.models.Services;
+import com.demo.pet.models.User;
+import com.demo.pet.repositories.ServiceBookingRepo;
+import com.demo.pet.services.CageService;
+import com.demo.pet.services.ServicesService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exercises the hot read paths (service catalog, cage board, booking lists, DTO mapping and
+ * Jackson serialization) for a bounded time so the JIT compiles them before real traffic.
+ * <p>
+ * Runs as an ApplicationRunner after {@link ApplicationInitConfig}; Spring Boot only switches
+ * readiness to ACCEPTING_TRAFFIC once all runners are done, so the node reports ready after
+ * the warm-up.
+ */
+@Component
+@Slf4j
+@Order(JitWarmupRunner.ORDER)
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class JitWarmupRunner implements ApplicationRunner {
+    public static final int ORDER = 100;
+
+    private final ServicesService servicesService;
+    private final CageService cageService;
+    private final ServiceBookingRepo bookingRepo;
+    private final ObjectMapper objectMapper;
+    private final Duration duration;
+    private final int threads;
+    private final String mode;
+    private final int pageSize;
+    private volatile double lastDurationSeconds;
+    private volatile long lastIterations;
+
+    public JitWarmupRunner(ServicesService servicesService,
+                           CageService cageService,
+                           ServiceBookingRepo bookingRepo,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.warmup.duration:20s}") Duration duration,
+                           @Value("${app.warmup.threads:2}") int threads,
+                           @Value("${app.warmup.mode:both}") String mode,
+                           @Value("${app.warmup.page-size:50}") int pageSize) {
+        this.servicesService = servicesService;
+        this.cageService = cageService;
+        this.bookingRepo = bookingRepo;
+        this.objectMapper = objectMapper;
+        this.duration = duration;
+        this.threads = threads;
+        this.mode = mode;
+        this.pageSize = pageSize;
+        meterRegistry.gauge("app.warmup.duration.seconds", this, r -> r.lastDurationSeconds);
+        meterRegistry.gauge("app.warmup.iterations", this, r -> r.lastIterations);
+        meterRegistry.gauge("app.warmup.throughput", this,
+                r -> r.lastDurationSeconds > 0 ? r.lastIterations / r.lastDurationSeconds : 0);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        boolean real = !"synthetic".equalsIgnoreCase(mode);
+        boolean synthetic = !"real".equalsIgnoreCase(mode);
+        Synthetic data = new Synthetic(pageSize);
+
+        log.info("JIT warm-up started: {} on {} thread(s), mode {}", duration, threads, mode);
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong iterations = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            if (real) {
+                                exerciseRealPaths();
+                            }
+                            if (synthetic) {
+                                data.exercise(objectMapper);
+                            }
+                            iterations.incrementAndGet();
+                        } catch (Exception e) {
+                            // A broken path must not keep the node from starting
+                            if (failures.incrementAndGet() == 1) {
+                                log.warn("JIT warm-up iteration failed: {}", e.getMessage());
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsedNanos = duration.toNanos() + (System.nanoTime() - deadline);
+        double seconds = elapsedNanos / 1e9;
+        double throughput = iterations.get() / seconds;
+        lastDurationSeconds = seconds;
+        lastIterations = iterations.get();
+        log.info("JIT warm-up finished in {} s: {} iterations ({} /s), {} failures",
+                String.format("%.1f", seconds), iterations.get(), String.format("%.1f", throughput), failures.get());
+    }
+
+    private void exerciseRealPaths() throws Exception {
+        List<ServicesDTO> services = servicesService.getAllServices();
+        if (!services.isEmpty()) {
+            servicesService.getServicesById(services.get(0).getId());
+        }
+        objectMapper.writeValueAsBytes(services);
+        objectMapper.writeValueAsBytes(cageService.getAllCages());
+        objectMapper.writeValueAsBytes(cageService.getCagesByStatus(Cage.Status.AVAILABLE.name()));
+        objectMapper.writeValueAsBytes(bookingRepo.findAllDetails(PageRequest.of(0, pageSize)));
+    }
+
+    /**
+     * In-memory entities shaped like production rows, so mapping and serialization get
+     * compiled even when the database is empty.
+     */
+    private static final class Synthetic {
+        private final List<ServiceBooking> bookings = new ArrayList<>();
+        private final List<Pet> pets = new ArrayList<>();
+        private final List<Cage> cages = new ArrayList<>();
+        private final List<Services> services = new ArrayList<>();
+
+        Synthetic(int size) {
+            User owner = User.builder().name("Warm-up").email("warmup@example.com").roles(User.Roles.OWNER).build();
+            owner.setId(1L);
+            for (int i = 0; i < size; i++) {
+                Services service = new Services("Service " + i, Services.CategoryTypes.values()[i % 4],
+                        "Synthetic service used for JIT warm-up", 100.0 + i, null);
+                service.setId((long) i);
+                services.add(service);
+
+                Pet pet = Pet.builder().name("Pet " + i).birthDate(LocalDate.of(2020, 1, 1).plusDays(i))
+                        .gender(i % 2 == 0 ? Pet.Gender.MALE : Pet.Gender.FEMALE).species("Dog").color("Brown")
+                        .healthInfo("Healthy").user(owner).build();
+                pet.setId((long) i);
+                pets.add(pet);
+
+                Cage cage = Cage.builder().type("Dog").size("M").status(Cage.Status.values()[i % 3])
+                        .startDate(LocalDate.now()).endDate(LocalDate.now().plusDays(3)).pet(pet).build();
+                cage.setId((long) i);
+                cages.add(cage);
+
+                ServiceBooking booking = ServiceBooking.builder().startDate(LocalDate.now().plusDays(i))
+                        .endDate(LocalDate.now().plusDays(i + 1)).status(ServiceBooking.SubscriptionStatus.PENDING)
+                        .notes("Synthetic booking").user(owner).services(service).build();
+                booking.setId((long) i);
+                bookings.add(booking);
+            }
+        }
+
+        void exercise(ObjectMapper objectMapper) throws Exception {
+            objectMapper.writeValueAsBytes(bookings.stream().map(ServiceBookingDTO::fromEntity).toList());
+            objectMapper.writeValueAsBytes(pets.stream().map(PetDTO::fromEntity).toList());
+            objectMapper.writeValueAsBytes(cages.stream().map(CageDTO::fromEntity).toList());
+            objectMapper.writeValueAsBytes(services.stream().map(ServicesDTO::fromEntity).toList());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.demo.pet.config;
+
+import com.demo.pet.resilience.AdaptiveConcurrencyFilter;
+import com.demo.pet.resilience.AdaptiveConcurrencyLimiter;
+import com.demo.pet.resilience.RequestDeadlineFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Servlet filters that protect the application under overload. Orders are relative to
+ * Spring Security's filter chain ({@code -100}): filters that must not touch the session or the
+ * database run before it.
+ */
+@Configuration
+public class ResilienceFilterConfig {
+    public static final int CONCURRENCY_LIMIT_ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+    // Deadline starts once the request is admitted, and covers the login/session lookups too
+    public static final int REQUEST_DEADLINE_ORDER = CONCURRENCY_LIMIT_ORDER + 1;
+
+    @Bean
+    @ConditionalOnProperty(name = "app.concurrency.enabled", havingValue = "true")
+    public FilterRegistrationBean<AdaptiveConcurrencyFilter> adaptiveConcurrencyFilter(
+            AdaptiveConcurrencyLimiter limiter,
+            @Value("${app.concurrency.high-priority-routes:}") List<String> highPriorityRoutes,
+            @Value("${app.concurrency.low-priority-routes:}") List<String> lowPriorityRoutes) {
+        FilterRegistrationBean<AdaptiveConcurrencyFilter> registration = new FilterRegistrationBean<>(
+                new AdaptiveConcurrencyFilter(limiter, highPriorityRoutes, lowPriorityRoutes));
+        registration.setOrder(CONCURRENCY_LIMIT_ORDER);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.deadline.enabled", havingValue = "true")
+    public FilterRegistrationBean<RequestDeadlineFilter> requestDeadlineFilter(
+            @Value("${app.deadline.default:10s}") Duration defaultBudget,
+            @Value("${app.deadline.routes:}") List<String> routeBudgets,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestDeadlineFilter> registration = new FilterRegistrationBean<>(
+                new RequestDeadlineFilter(defaultBudget, routeBudgets, meterRegistry));
+        registration.setOrder(REQUEST_DEADLINE_ORDER);
+        return registration;
+    }
+}
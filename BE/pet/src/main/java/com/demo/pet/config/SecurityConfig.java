@@ -1,6 +1,10 @@
 package com.demo.pet.config;
 
 import com.demo.pet.config.CustomForSercurityConfig.*;
+import com.demo.pet.idempotency.IdempotencyFilter;
+import com.demo.pet.idempotency.IdempotencyStore;
+import com.demo.pet.resilience.ApiRateLimitFilter;
+import com.demo.pet.resilience.ApiRateLimiter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,6 +15,8 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
@@ -18,6 +24,9 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableMethodSecurity
 public class SecurityConfig{
     private final CustomUserDetailsService userDetailsService;
+    private final LoginAttemptThrottle loginAttemptThrottle;
+    private final ApiRateLimiter apiRateLimiter;
+    private final IdempotencyStore idempotencyStore;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -26,15 +35,23 @@ public class SecurityConfig{
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/static/**", "/public/**").permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers("/actuator/health/**").permitAll()
                         .requestMatchers("/api/services/**").authenticated()
                         .anyRequest().authenticated()
                 )
                 .cors(Customizer.withDefaults()) // <-- Cho phép xử lý CORS
                 .userDetailsService(userDetailsService) // Sử dụng custom UserDetailsService
+                // Chặn đăng nhập bị throttle trước khi truy vấn DB / BCrypt
+                .addFilterBefore(new LoginThrottleFilter(loginAttemptThrottle, "/api/auth/login"),
+                        UsernamePasswordAuthenticationFilter.class)
+                // Rate limit theo user + route: sau khi biết principal, trước khi vào controller
+                .addFilterBefore(new ApiRateLimitFilter(apiRateLimiter), AuthorizationFilter.class)
+                // Idempotency-Key cho các API tạo mới: chỉ request đã qua phân quyền mới giữ key
+                .addFilterAfter(new IdempotencyFilter(idempotencyStore), AuthorizationFilter.class)
                 .formLogin(form -> form
                         .loginPage("/api/auth/login") // Custom login endpoint
-                        .successHandler(new JsonAuthenticationSuccessHandler()) // Trả về JSON khi login thành công
-                        .failureHandler(new JsonAuthenticationFailureHandler())
+                        .successHandler(new JsonAuthenticationSuccessHandler(loginAttemptThrottle)) // Trả về JSON khi login thành công
+                        .failureHandler(new JsonAuthenticationFailureHandler(loginAttemptThrottle))
                         .permitAll()
                 )
                 .logout(logout -> logout
@@ -0,0 +1,83 @@
+package com.demo.pet.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Logs where startup time went once the application is ready: total time per phase
+ * (step name) and the slowest bean instantiations. Bean times include the beans they
+ * depend on. The full timeline stays available at {@code /actuator/startup}.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.startup-report.enabled", havingValue = "true")
+public class StartupReportLogger implements ApplicationListener<ApplicationReadyEvent> {
+    private static final String BEAN_STEP = "spring.beans.instantiate";
+
+    private final int topBeans;
+
+    public StartupReportLogger(@Value("${app.startup-report.top-beans:20}") int topBeans) {
+        this.topBeans = topBeans;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        ApplicationStartup startup = event.getSpringApplication().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            log.info("Startup report skipped: application was not started with BufferingApplicationStartup");
+            return;
+        }
+        // Copy, so /actuator/startup can still drain the buffer later
+        StartupTimeline timeline = buffering.getBufferedTimeline();
+
+        Map<String, Duration> phases = new LinkedHashMap<>();
+        Map<String, Duration> beans = new LinkedHashMap<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : timeline.getEvents()) {
+            StartupStep step = timelineEvent.getStartupStep();
+            if (BEAN_STEP.equals(step.getName())) {
+                beans.merge(beanName(step), timelineEvent.getDuration(), Duration::plus);
+            } else {
+                phases.merge(step.getName(), timelineEvent.getDuration(), Duration::plus);
+            }
+        }
+
+        StringBuilder report = new StringBuilder("Startup report")
+                .append(System.lineSeparator())
+                .append(String.format("  JVM uptime at ready: %d ms, ready event: %s ms%n",
+                        ManagementFactory.getRuntimeMXBean().getUptime(),
+                        event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : "?"))
+                .append("  Phases:").append(System.lineSeparator());
+        phases.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                .forEach(e -> report.append(String.format("    %8d ms  %s%n", e.getValue().toMillis(), e.getKey())));
+        report.append("  Slowest beans (inclusive):").append(System.lineSeparator());
+        beans.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue(Comparator.naturalOrder()).reversed())
+                .limit(topBeans)
+                .forEach(e -> report.append(String.format("    %8d ms  %s%n", e.getValue().toMillis(), e.getKey())));
+        log.info(report.toString());
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+}
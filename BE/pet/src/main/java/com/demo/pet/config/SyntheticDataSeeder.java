@@ -0,0 +1,319 @@
+package com.demo.pet.config;
+
+import com.demo.pet.models.Cage;
+import com.demo.pet.models.Pet;
+import com.demo.pet.models.ServiceBooking;
+import com.demo.pet.models.Services;
+import com.demo.pet.models.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fills the database with a production-sized synthetic dataset when the {@code seed} profile
+ * is active ({@code --spring.profiles.active=seed}).
+ * <p>
+ * Rows get explicit ids starting after the current max id of each table, so the generator
+ * knows every foreign key up front and can build chunks in parallel; each chunk is one JDBC
+ * batch in its own transaction. Passwords are hashed once per role. Generation is seeded, so
+ * the same settings give the same data.
+ * <p>
+ * A marker account is written after the last table, so only a finished seed is skipped on the
+ * next start; an interrupted one stops startup until the database is reset.
+ */
+@Component
+@Slf4j
+@Profile("seed")
+@Order(SyntheticDataSeeder.ORDER)
+public class SyntheticDataSeeder implements ApplicationRunner {
+    public static final int ORDER = 10;
+    static final String MARKER_EMAIL = "seed-complete@example.com";
+    static final String FIRST_EMAIL = "seed-owner-1@example.com";
+    static final String PASSWORD = "seed123";
+
+    private static final String[] SPECIES = {"Dog", "Cat", "Rabbit", "Hamster", "Parrot", "Turtle"};
+    private static final String[] COLORS = {"Black", "White", "Brown", "Golden", "Grey", "Spotted", "Tabby"};
+    private static final String[] PET_NAMES = {"Milo", "Luna", "Bella", "Max", "Coco", "Charlie", "Lucy",
+            "Rocky", "Mochi", "Kem", "Bông", "Mực", "Vàng", "Lu", "Bơ", "Đậu"};
+    private static final String[] HEALTH = {"Healthy, vaccinated", "Mild skin allergy", "Sensitive stomach",
+            "Recovering from surgery", "Overweight, on diet", "Senior, joint care", "Dental tartar"};
+    private static final String[] DIAGNOSES = {"Otitis externa in the left ear", "Gastroenteritis after diet change",
+            "Flea allergy dermatitis", "Mild dehydration", "Periodontal disease, grade 2",
+            "Conjunctivitis in both eyes", "Soft tissue injury of the front leg", "Routine check-up, no findings",
+            "Upper respiratory infection", "Urinary tract infection"};
+    private static final String[] PRESCRIPTIONS = {"Amoxicillin 10mg/kg twice daily for 7 days",
+            "Ear drops twice daily for 10 days", "Probiotics and bland diet for 5 days",
+            "Meloxicam 0.1mg/kg once daily for 3 days", "Antihistamine once daily", "Eye ointment three times daily",
+            "Oral rehydration, recheck if vomiting persists", "Dental cleaning scheduled"};
+    private static final String[] RECORD_NOTES = {"Owner reports reduced appetite for two days.",
+            "Pet was calm during examination.", "Recommend weight check at next visit.",
+            "Vaccination booklet updated.", "Advise owner to keep the wound dry.", ""};
+    private static final String[] BOOKING_NOTES = {"Please call before arrival", "Pet is nervous with other animals",
+            "Bring vaccination booklet", "Needs a quiet room", "", "", ""};
+    private static final String[][] SERVICES = {
+            {"Emergency consultation", "EMERGENCY"}, {"Night emergency care", "EMERGENCY"},
+            {"General health check", "HEALTH"}, {"Vaccination", "HEALTH"}, {"Blood test", "HEALTH"},
+            {"Bathing and grooming", "CARE"}, {"Nail trimming", "CARE"}, {"Pet hotel (per night)", "CARE"},
+            {"Dental cleaning", "MEDICAL"}, {"Sterilization surgery", "MEDICAL"}, {"X-ray", "MEDICAL"},
+            {"Ultrasound", "MEDICAL"}};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final int owners;
+    private final int staff;
+    private final int doctors;
+    private final int pets;
+    private final int cages;
+    private final int services;
+    private final int bookings;
+    private final int medicalRecords;
+    private final int batchSize;
+    private final int threads;
+    private final long randomSeed;
+
+    public SyntheticDataSeeder(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               PasswordEncoder passwordEncoder,
+                               @Value("${app.seed.owners:20000}") int owners,
+                               @Value("${app.seed.staff:50}") int staff,
+                               @Value("${app.seed.doctors:30}") int doctors,
+                               @Value("${app.seed.pets:40000}") int pets,
+                               @Value("${app.seed.cages:500}") int cages,
+                               @Value("${app.seed.services:60}") int services,
+                               @Value("${app.seed.bookings:1000000}") int bookings,
+                               @Value("${app.seed.medical-records:200000}") int medicalRecords,
+                               @Value("${app.seed.batch-size:5000}") int batchSize,
+                               @Value("${app.seed.threads:0}") int threads,
+                               @Value("${app.seed.random-seed:42}") long randomSeed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.owners = owners;
+        this.staff = staff;
+        this.doctors = doctors;
+        this.pets = pets;
+        this.cages = cages;
+        this.services = services;
+        this.bookings = bookings;
+        this.medicalRecords = medicalRecords;
+        this.batchSize = batchSize;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.randomSeed = randomSeed;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (userExists(MARKER_EMAIL)) {
+            log.info("Synthetic dataset already present ({} exists), skipping seed", MARKER_EMAIL);
+            return;
+        }
+        if (userExists(FIRST_EMAIL)) {
+            // Lần seed trước bị ngắt giữa chừng: chạy lại sẽ trùng email, dữ liệu dở dang không tự xóa được
+            throw new IllegalStateException("Synthetic dataset is incomplete (" + FIRST_EMAIL + " exists but "
+                    + MARKER_EMAIL + " does not); reset the database before seeding again");
+        }
+
+        long started = System.nanoTime();
+        Map<User.Roles, String> hashes = new EnumMap<>(User.Roles.class);
+        for (User.Roles role : User.Roles.values()) {
+            hashes.put(role, passwordEncoder.encode(PASSWORD));
+        }
+
+        long userBase = nextId("users");
+        long serviceBase = nextId("services");
+        long petBase = nextId("pet");
+        long cageBase = nextId("cage");
+        long bookingBase = nextId("service_booking");
+        long recordBase = nextId("medical_record");
+        int users = owners + staff + doctors;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            insert(executor, "users", users,
+                    "INSERT INTO users (id, created_at, updated_at, name, password, phone, email, roles) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    (i, rnd) -> {
+                        User.Roles role = i < owners ? User.Roles.OWNER : i < owners + staff ? User.Roles.STAFF : User.Roles.DOCTOR;
+                        Timestamp created = Timestamp.valueOf(now.minusDays(rnd.nextInt(1000)));
+                        return new Object[]{userBase + i, created, created,
+                                PET_NAMES[rnd.nextInt(PET_NAMES.length)] + " " + (i + 1),
+                                hashes.get(role),
+                                String.format("09%08d", userBase + i),
+                                "seed-" + role.name().toLowerCase() + "-" + (i + 1) + "@example.com",
+                                role.name()};
+                    });
+
+            insert(executor, "services", services,
+                    "INSERT INTO services (id, created_at, updated_at, name, category, description, price) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    (i, rnd) -> {
+                        String[] service = SERVICES[i % SERVICES.length];
+                        Timestamp created = Timestamp.valueOf(now.minusDays(1000));
+                        return new Object[]{serviceBase + i, created, created,
+                                service[0] + (i < SERVICES.length ? "" : " #" + (i / SERVICES.length + 1)),
+                                Services.CategoryTypes.valueOf(service[1]).name(),
+                                service[0] + " performed by our certified staff.",
+                                (double) (50 + rnd.nextInt(200) * 10) * 1000};
+                    });
+
+            insert(executor, "pet", pets,
+                    "INSERT INTO pet (id, created_at, updated_at, name, birth_date, gender, species, color, health_info, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    (i, rnd) -> {
+                        Timestamp created = Timestamp.valueOf(now.minusDays(rnd.nextInt(900)));
+                        return new Object[]{petBase + i, created, created,
+                                PET_NAMES[rnd.nextInt(PET_NAMES.length)],
+                                Date.valueOf(today.minusDays(60 + rnd.nextInt(15 * 365))),
+                                (rnd.nextBoolean() ? Pet.Gender.MALE : Pet.Gender.FEMALE).name(),
+                                SPECIES[rnd.nextInt(SPECIES.length)],
+                                COLORS[rnd.nextInt(COLORS.length)],
+                                HEALTH[rnd.nextInt(HEALTH.length)],
+                                ownerOf(userBase, i)};
+                    });
+
+            // About 60% of cages are occupied, each by a different pet
+            int occupied = Math.min((int) (cages * 0.6), pets);
+            insert(executor, "cage", cages,
+                    "INSERT INTO cage (id, created_at, updated_at, type, size, status, start_date, end_date, pet_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    (i, rnd) -> {
+                        Timestamp created = Timestamp.valueOf(now.minusDays(1000));
+                        boolean taken = i < occupied;
+                        LocalDate start = today.minusDays(rnd.nextInt(7));
+                        return new Object[]{cageBase + i, created, created,
+                                SPECIES[i % 3], new String[]{"S", "M", "L"}[rnd.nextInt(3)],
+                                (taken ? Cage.Status.OCCUPIED : rnd.nextInt(10) == 0 ? Cage.Status.CLEANING : Cage.Status.AVAILABLE).name(),
+                                taken ? Date.valueOf(start) : null,
+                                taken ? Date.valueOf(start.plusDays(1 + rnd.nextInt(10))) : null,
+                                taken ? petBase + i : null};
+                    });
+
+            insert(executor, "service_booking", bookings,
+                    "INSERT INTO service_booking (id, created_at, updated_at, start_date, end_date, status, notes, user_id, service_id, pet_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    (i, rnd) -> {
+                        // Two years of history plus two months ahead; status follows the date
+                        LocalDate start = today.minusDays(730).plusDays(rnd.nextInt(790));
+                        LocalDate end = start.plusDays(rnd.nextInt(4));
+                        ServiceBooking.SubscriptionStatus status = bookingStatus(start, today, rnd);
+                        LocalDateTime created = start.atStartOfDay().minusDays(1 + rnd.nextInt(30)).plusMinutes(rnd.nextInt(1440));
+                        LocalDateTime updated = status == ServiceBooking.SubscriptionStatus.PENDING
+                                ? created : min(end.atTime(18, 0), now);
+                        // About 90% name one of the owner's pets; the rest are like bookings made before pet_id existed
+                        int pet = pets > 0 && rnd.nextInt(10) > 0 ? rnd.nextInt(pets) : -1;
+                        return new Object[]{bookingBase + i, Timestamp.valueOf(created), Timestamp.valueOf(updated),
+                                Date.valueOf(start), Date.valueOf(end), status.name(),
+                                BOOKING_NOTES[rnd.nextInt(BOOKING_NOTES.length)],
+                                pet >= 0 ? ownerOf(userBase, pet) : userBase + rnd.nextInt(owners),
+                                serviceBase + rnd.nextInt(services),
+                                pet >= 0 ? petBase + pet : null};
+                    });
+
+            insert(executor, "medical_record", medicalRecords,
+                    "INSERT INTO medical_record (id, created_at, updated_at, diagnosis, prescription, notes, next_meeting_date, pet_id, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    (i, rnd) -> {
+                        LocalDateTime created = now.minusDays(rnd.nextInt(730)).minusMinutes(rnd.nextInt(1440));
+                        // About a third of the visits schedule a follow-up
+                        LocalDate next = rnd.nextInt(3) == 0 ? created.toLocalDate().plusDays(7 + rnd.nextInt(60)) : null;
+                        return new Object[]{recordBase + i, Timestamp.valueOf(created), Timestamp.valueOf(created),
+                                DIAGNOSES[rnd.nextInt(DIAGNOSES.length)],
+                                PRESCRIPTIONS[rnd.nextInt(PRESCRIPTIONS.length)],
+                                RECORD_NOTES[rnd.nextInt(RECORD_NOTES.length)],
+                                next != null ? Date.valueOf(next) : null,
+                                petBase + rnd.nextInt(pets),
+                                userBase + owners + staff + rnd.nextInt(doctors)};
+                    });
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Marker ghi sau cùng, mật khẩu ngẫu nhiên nên không đăng nhập được
+        Timestamp finished = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO users (id, created_at, updated_at, name, password, phone, email, roles) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                nextId("users"), finished, finished, "Synthetic dataset marker",
+                passwordEncoder.encode(UUID.randomUUID().toString()), null, MARKER_EMAIL, User.Roles.OWNER.name());
+
+        log.info("Synthetic dataset seeded in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void insert(ExecutorService executor, String table, int rows, String sql, RowGenerator generator) throws Exception {
+        if (rows <= 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        List<Future<?>> chunks = new ArrayList<>();
+        for (int from = 0; from < rows; from += batchSize) {
+            int start = from;
+            int end = Math.min(from + batchSize, rows);
+            chunks.add(executor.submit(() -> {
+                // Seeded per chunk, so the output does not depend on thread scheduling
+                SplittableRandom rnd = new SplittableRandom(randomSeed ^ (table.hashCode() * 31L + start));
+                List<Object[]> batch = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    batch.add(generator.row(i, rnd));
+                }
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+            }));
+        }
+        for (Future<?> chunk : chunks) {
+            chunk.get();
+        }
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Seeded {} rows into {} in {} ms ({} rows/s)", rows, table, millis, rows * 1000L / millis);
+    }
+
+    // Pet i thuộc owner i % owners: booking biết chủ của pet mà không cần đọc lại bảng pet
+    private long ownerOf(long userBase, int pet) {
+        return userBase + pet % owners;
+    }
+
+    private boolean userExists(String email) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email = ?", Integer.class, email);
+        return count != null && count > 0;
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    private static ServiceBooking.SubscriptionStatus bookingStatus(LocalDate start, LocalDate today, SplittableRandom rnd) {
+        int roll = rnd.nextInt(100);
+        if (start.isBefore(today)) {
+            return roll < 80 ? ServiceBooking.SubscriptionStatus.COMPLETED
+                    : roll < 95 ? ServiceBooking.SubscriptionStatus.CANCELLED
+                    : ServiceBooking.SubscriptionStatus.ACCEPTED;
+        }
+        return roll < 50 ? ServiceBooking.SubscriptionStatus.PENDING
+                : roll < 90 ? ServiceBooking.SubscriptionStatus.ACCEPTED
+                : ServiceBooking.SubscriptionStatus.CANCELLED;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    @FunctionalInterface
+    private interface RowGenerator {
+        Object[] row(int index, SplittableRandom rnd);
+    }
+}
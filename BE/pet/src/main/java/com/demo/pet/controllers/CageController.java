@@ -1,6 +1,7 @@
 package com.demo.pet.controllers;
 
 import com.demo.pet.dtos.CageDTO;
+import com.demo.pet.dtos.subDTO.CageTransferDTO;
 import com.demo.pet.services.CageService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -39,6 +40,12 @@ public class CageController {
         return ResponseEntity.ok(cageService.updateCage(id, dto));
     }
 
+    // Chuyển pet sang chuồng khác trong một giao dịch, trả về [chuồng nguồn, chuồng đích]
+    @PostMapping("/transfer")
+    public ResponseEntity<List<CageDTO>> transferPet(@RequestBody CageTransferDTO dto) {
+        return ResponseEntity.ok(cageService.transferPet(dto));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<CageDTO> deleteCage(@PathVariable Long id) {
         return ResponseEntity.ok(cageService.deleteCage(id));
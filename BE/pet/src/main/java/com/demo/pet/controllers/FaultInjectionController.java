@@ -0,0 +1,33 @@
+package com.demo.pet.controllers;
+
+import com.demo.pet.dtos.subDTO.FaultProfileDTO;
+import com.demo.pet.resilience.FaultInjector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/faults")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@ConditionalOnProperty(name = "app.faults.enabled", havingValue = "true")
+public class FaultInjectionController {
+    private final FaultInjector faultInjector;
+
+    @GetMapping("")
+    public ResponseEntity<FaultProfileDTO> getFaults() {
+        return ResponseEntity.ok(FaultProfileDTO.fromProfile(faultInjector.getProfile()));
+    }
+
+    @PutMapping("")
+    public ResponseEntity<FaultProfileDTO> setFaults(@RequestBody FaultProfileDTO faultProfileDTO) {
+        return ResponseEntity.ok(FaultProfileDTO.fromProfile(faultInjector.setProfile(faultProfileDTO.toProfile())));
+    }
+
+    @DeleteMapping("")
+    public ResponseEntity<FaultProfileDTO> resetFaults() {
+        return ResponseEntity.ok(FaultProfileDTO.fromProfile(faultInjector.reset()));
+    }
+}
@@ -1,6 +1,8 @@
 package com.demo.pet.controllers;
 
 import com.demo.pet.dtos.MedicalRecordDTO;
+import com.demo.pet.resilience.Workload;
+import com.demo.pet.resilience.WorkloadClass;
 import com.demo.pet.services.MedicalRecordService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +16,7 @@ import java.util.List;
 public class MedicalRecordController {
     private final MedicalRecordService recordService;
 
+    @Workload(WorkloadClass.REPORTING)
     @GetMapping("")
     public ResponseEntity<List<MedicalRecordDTO>> getAllRecords() {
         return ResponseEntity.ok(recordService.getAllRecords());
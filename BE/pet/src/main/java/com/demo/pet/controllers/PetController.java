@@ -1,6 +1,8 @@
 package com.demo.pet.controllers;
 
 import com.demo.pet.dtos.PetDTO;
+import com.demo.pet.resilience.Workload;
+import com.demo.pet.resilience.WorkloadClass;
 import com.demo.pet.services.Impl.PetServiceImpl;
 import com.demo.pet.services.PetService;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +17,7 @@ import java.util.List;
 public class PetController {
     private final PetService petService;
 
+    @Workload(WorkloadClass.REPORTING)
     @GetMapping("")
     public ResponseEntity<List<PetDTO>> getAllPets() {
         return ResponseEntity.ok(petService.getAllPets());
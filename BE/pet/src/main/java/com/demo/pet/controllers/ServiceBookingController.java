@@ -3,10 +3,14 @@ package com.demo.pet.controllers;
 import com.demo.pet.dtos.ServiceBookingDTO;
 import com.demo.pet.dtos.subDTO.BookingStatusDTO;
 import com.demo.pet.models.ServiceBooking;
+import com.demo.pet.resilience.Workload;
+import com.demo.pet.resilience.WorkloadClass;
 import com.demo.pet.services.ServiceBookingService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -16,11 +20,20 @@ import java.util.List;
 public class ServiceBookingController {
     private final ServiceBookingService bookingService;
 
+    @Workload(WorkloadClass.REPORTING)
     @GetMapping("")
     public ResponseEntity<List<ServiceBookingDTO>> getAllBookings() {
         return ResponseEntity.ok(bookingService.getAllBookings());
     }
 
+    // Lịch sử đã archive, mới nhất trước; trang sau: before = id cuối của trang này
+    @Workload(WorkloadClass.REPORTING)
+    @GetMapping("/archived")
+    public ResponseEntity<List<ServiceBookingDTO>> getArchivedBookings(@RequestParam(required = false) Long before,
+                                                                       @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(bookingService.getArchivedBookings(before, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ServiceBookingDTO> getBookingById(@PathVariable Long id) {
         return ResponseEntity.ok(bookingService.getBookingById(id));
@@ -31,6 +44,7 @@ public class ServiceBookingController {
         return ResponseEntity.ok(bookingService.getBookingsByUserId(userId));
     }
 
+    @Workload(WorkloadClass.REPORTING)
     @GetMapping("/service/{serviceId}")
     public ResponseEntity<List<ServiceBookingDTO>> getBookingsByServiceId(@PathVariable Long serviceId) {
         return ResponseEntity.ok(bookingService.getBookingsByServiceId(serviceId));
@@ -72,4 +86,10 @@ public class ServiceBookingController {
     public ResponseEntity<List<ServiceBookingDTO>> getMyBookings() {
         return ResponseEntity.ok(bookingService.getMyBookings());
     }
+
+    // Server-sent events: đẩy thay đổi trạng thái booking, thay cho việc poll /{id}/status
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatusChanges() {
+        return bookingService.streamStatusChanges();
+    }
 }
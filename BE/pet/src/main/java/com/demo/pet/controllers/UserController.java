@@ -3,6 +3,8 @@ package com.demo.pet.controllers;
 import com.demo.pet.dtos.UserDTO;
 import com.demo.pet.dtos.subDTO.UserRoleDTO;
 import com.demo.pet.models.User;
+import com.demo.pet.resilience.Workload;
+import com.demo.pet.resilience.WorkloadClass;
 import com.demo.pet.services.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +19,7 @@ import java.util.List;
 public class UserController {
     private final UserService userService;
 
+    @Workload(WorkloadClass.REPORTING)
     @GetMapping("")
     public ResponseEntity<List<UserDTO>> getAllUsers() {
         return ResponseEntity.ok(userService.getAllUsers());
@@ -1,5 +1,6 @@
 package com.demo.pet.dtos;
 
+import com.demo.pet.models.Pet;
 import com.demo.pet.models.ServiceBooking;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
@@ -21,7 +22,12 @@ import java.time.LocalDate;
         "end_date",
         "notes",
         "user_id",
-        "service_id"
+        "service_id",
+        "pet_id",
+        "pet_name",
+        "status",
+        "service_name",
+        "service_price"
 })
 public class ServiceBookingDTO {
     Long id;
@@ -40,14 +46,35 @@ public class ServiceBookingDTO {
     @JsonProperty("service_id")
     Long serviceId;
 
+    @JsonProperty("pet_id")
+    Long petId;
+
+    // Các trường dưới chỉ để đọc: create/update bỏ qua giá trị client gửi lên
+    @JsonProperty("pet_name")
+    String petName;
+
+    ServiceBooking.SubscriptionStatus status;
+
+    @JsonProperty("service_name")
+    String serviceName;
+
+    @JsonProperty("service_price")
+    Double servicePrice;
+
     public static ServiceBookingDTO fromEntity(ServiceBooking serviceBooking) {
+        Pet pet = serviceBooking.getPet();
         return new ServiceBookingDTO(
                 serviceBooking.getId(),
                 serviceBooking.getStartDate(),
                 serviceBooking.getEndDate(),
                 serviceBooking.getNotes(),
                 serviceBooking.getUser().getId(),
-                serviceBooking.getServices().getId()
+                serviceBooking.getServices().getId(),
+                pet != null ? pet.getId() : null,
+                pet != null ? pet.getName() : null,
+                serviceBooking.getStatus(),
+                serviceBooking.getServices().getName(),
+                serviceBooking.getServices().getPrice()
         );
     }
 }
@@ -0,0 +1,21 @@
+package com.demo.pet.dtos.subDTO;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CageTransferDTO {
+    @JsonProperty("from_cage_id")
+    private Long fromCageId;
+
+    @JsonProperty("to_cage_id")
+    private Long toCageId;
+
+    // Không bắt buộc: pet mà client thấy trong chuồng nguồn, để không chuyển nhầm pet đã bị chuyển đi
+    @JsonProperty("pet_id")
+    private Long petId;
+}
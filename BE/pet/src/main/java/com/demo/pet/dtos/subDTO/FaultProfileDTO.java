@@ -0,0 +1,59 @@
+package com.demo.pet.dtos.subDTO;
+
+import com.demo.pet.resilience.FaultProfile;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.regex.Pattern;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FaultProfileDTO {
+    @JsonProperty("statement_latency_ms")
+    private long statementLatencyMs;
+
+    @JsonProperty("latency_jitter_ms")
+    private long latencyJitterMs;
+
+    @JsonProperty("statement_failure_rate")
+    private double statementFailureRate;
+
+    @JsonProperty("acquire_delay_ms")
+    private long acquireDelayMs;
+
+    @JsonProperty("acquire_failure_rate")
+    private double acquireFailureRate;
+
+    // Regex tìm trong câu SQL, để trống = áp dụng cho mọi câu lệnh
+    @JsonProperty("sql_pattern")
+    private String sqlPattern;
+
+    private boolean active;
+
+    public static FaultProfileDTO fromProfile(FaultProfile profile) {
+        return new FaultProfileDTO(
+                profile.statementLatencyMs(),
+                profile.latencyJitterMs(),
+                profile.statementFailureRate(),
+                profile.acquireDelayMs(),
+                profile.acquireFailureRate(),
+                profile.sqlPattern() == null ? null : profile.sqlPattern().pattern(),
+                profile.isActive()
+        );
+    }
+
+    public FaultProfile toProfile() {
+        return new FaultProfile(
+                statementLatencyMs,
+                latencyJitterMs,
+                statementFailureRate,
+                acquireDelayMs,
+                acquireFailureRate,
+                sqlPattern == null || sqlPattern.isBlank()
+                        ? null : Pattern.compile(sqlPattern, Pattern.CASE_INSENSITIVE)
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package com.demo.pet.events;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record BookingStatusChange(
+        @JsonProperty("booking_id") Long bookingId,
+        @JsonProperty("user_id") Long userId,
+        @JsonProperty("previous_status") String previousStatus,
+        @JsonProperty("status") String status
+) {
+}
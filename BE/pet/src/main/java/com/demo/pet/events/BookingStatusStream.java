@@ -0,0 +1,272 @@
+package com.demo.pet.events;
+
+import com.demo.pet.models.OutboxEvent;
+import com.demo.pet.repositories.OutboxEventRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes {@code BOOKING_STATUS_CHANGED} events from the outbox to clients connected to
+ * {@code GET /api/bookings/stream}. Owners get their own bookings only, staff get every booking.
+ * <p>
+ * Every node tails the outbox itself with an {@link OutboxTail} ({@code poll-interval-ms}), so a
+ * client gets each change once whichever node it is connected to and whichever node holds the
+ * relay lease. The tail stops while the node has no clients and restarts from the newest event.
+ * <p>
+ * An idle connection costs an emitter and an empty queue, no thread. Each event is rendered once
+ * and the same frame is queued for every matching client; a small writer pool drains the queues,
+ * at most one writer per client, so the poller never touches a socket. A client whose queue
+ * ({@code buffer-size}) is full is disconnected and has to reconnect and reload. One timer sends
+ * heartbeats to the clients that had no write since the previous tick, which also finds the
+ * connections that went away without closing.
+ * <p>
+ * The first frame tells {@code EventSource} to wait between one and two {@code reconnect-delay}
+ * before reconnecting, so clients dropped together (restart, timeout wave) come back spread out.
+ */
+@Component
+@Slf4j
+public class BookingStatusStream {
+    public static final String EVENT_NAME = "booking-status";
+
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT =
+            SseEmitter.event().comment("heartbeat").build();
+
+    private final ObjectMapper objectMapper;
+    private final OutboxTail tail;
+    private final int maxClients;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long reconnectDelayMillis;
+    private final ExecutorService writers;
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger clientCount = new AtomicInteger();
+    private final Counter dropped;
+
+    public BookingStatusStream(ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               OutboxEventRepo outboxEventRepo,
+                               @Value("${app.booking-stream.poll-batch-size:500}") int pollBatchSize,
+                               @Value("${app.booking-stream.commit-grace:5s}") Duration commitGrace,
+                               @Value("${app.booking-stream.max-clients:10000}") int maxClients,
+                               @Value("${app.booking-stream.buffer-size:64}") int bufferSize,
+                               @Value("${app.booking-stream.timeout:30m}") Duration timeout,
+                               @Value("${app.booking-stream.reconnect-delay:5s}") Duration reconnectDelay,
+                               @Value("${app.booking-stream.writer-threads:4}") int writerThreads) {
+        this.objectMapper = objectMapper;
+        this.tail = new OutboxTail(outboxEventRepo, pollBatchSize, commitGrace);
+        this.maxClients = maxClients;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.reconnectDelayMillis = reconnectDelay.toMillis();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(writerThreads, r -> {
+            Thread t = new Thread(r, "booking-stream-writer-" + threadIndex.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+        this.dropped = Counter.builder("booking.stream.dropped")
+                .description("Stream clients disconnected because their buffer was full")
+                .register(meterRegistry);
+        meterRegistry.gauge("booking.stream.clients", clientCount);
+    }
+
+    public SseEmitter subscribe(Long userId, boolean staff) {
+        if (clientCount.incrementAndGet() > maxClients) {
+            clientCount.decrementAndGet();
+            throw new StreamLimitExceededException(maxClients);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Client client = new Client(emitter, userId, staff, new ArrayBlockingQueue<>(bufferSize));
+        clients.add(client);
+        // Hết timeout phải complete ngay trong callback, nếu không Spring trả lỗi timeout;
+        // EventSource phía client tự kết nối lại
+        emitter.onTimeout(() -> {
+            client.closed = true;
+            emitter.complete();
+        });
+        emitter.onCompletion(() -> finish(client));
+        emitter.onError(e -> finish(client));
+        // Gửi ngay trên thread request: handler chưa trả về nên Spring chỉ đệm frame này và ghi khi
+        // khởi tạo response. Đẩy qua writer sẽ ghi song song lúc filter chain còn sửa header
+        try {
+            emitter.send(SseEmitter.event()
+                    .reconnectTime(reconnectDelayMillis + ThreadLocalRandom.current().nextLong(reconnectDelayMillis + 1)));
+        } catch (IOException e) {
+            finish(client);
+            throw new UncheckedIOException(e);
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${app.booking-stream.poll-interval-ms:500}")
+    public void poll() {
+        if (clients.isEmpty()) {
+            // Không ai nghe: khỏi query, client kế tiếp bắt đầu từ event mới nhất
+            tail.reset();
+            return;
+        }
+        List<OutboxEvent> events;
+        try {
+            events = tail.poll();
+        } catch (RuntimeException e) {
+            // Database lỗi hoặc circuit mở: thử lại ở tick sau từ đúng vị trí cũ
+            log.debug("Booking stream could not read the outbox: {}", e.getMessage());
+            return;
+        }
+        for (OutboxEvent event : events) {
+            if (DomainEventType.BOOKING_STATUS_CHANGED.name().equals(event.getEventType())) {
+                publish(event);
+            }
+        }
+    }
+
+    private void publish(OutboxEvent event) {
+        BookingStatusChange change;
+        try {
+            change = objectMapper.readValue(event.getPayload(), BookingStatusChange.class);
+        } catch (IOException e) {
+            log.warn("Skipping unreadable booking status event {}: {}", event.getId(), e.getMessage());
+            return;
+        }
+
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event()
+                .id(String.valueOf(event.getId()))
+                .name(EVENT_NAME)
+                .data(event.getPayload())
+                .build();
+        for (Client client : clients) {
+            if (client.staff || client.userId.equals(change.userId())) {
+                enqueue(client, frame);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.booking-stream.heartbeat-interval:20s}")
+    public void heartbeat() {
+        for (Client client : clients) {
+            // Client vừa nhận event trong kỳ này thì không cần heartbeat
+            if (!client.wroteSinceHeartbeat.getAndSet(false)) {
+                enqueue(client, HEARTBEAT);
+            }
+        }
+    }
+
+    private void enqueue(Client client, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        if (client.closed) {
+            return;
+        }
+        if (!client.queue.offer(frame)) {
+            dropped.increment();
+            log.debug("Disconnecting booking stream client of user {}: buffer full", client.userId);
+            close(client);
+            return;
+        }
+        schedule(client);
+    }
+
+    // Đánh dấu đóng rồi để writer của client gọi complete(): gọi thẳng có thể chờ một lần ghi đang kẹt
+    private void close(Client client) {
+        client.closed = true;
+        remove(client);
+        schedule(client);
+    }
+
+    private void remove(Client client) {
+        if (clients.remove(client)) {
+            clientCount.decrementAndGet();
+        }
+    }
+
+    private void finish(Client client) {
+        client.closed = true;
+        client.finished = true;
+        client.queue.clear();
+        remove(client);
+    }
+
+    private void schedule(Client client) {
+        if (client.writing.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(client));
+            } catch (RuntimeException e) {
+                // Pool đã tắt khi ứng dụng dừng
+                client.writing.set(false);
+            }
+        }
+    }
+
+    private void drain(Client client) {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> frame;
+            while (!client.closed && (frame = client.queue.poll()) != null) {
+                client.emitter.send(frame);
+                if (frame != HEARTBEAT) {
+                    client.wroteSinceHeartbeat.set(true);
+                }
+            }
+            if (client.closed && !client.finished) {
+                finish(client);
+                client.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client đã ngắt kết nối hoặc emitter đã xong
+            finish(client);
+        } finally {
+            client.writing.set(false);
+        }
+        // Frame hoặc yêu cầu đóng đến giữa lúc vòng lặp kết thúc và cờ writing được nhả
+        if (!client.finished && (client.closed || !client.queue.isEmpty())) {
+            schedule(client);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.shutdownNow();
+        for (Client client : clients) {
+            client.closed = true;
+            client.emitter.complete();
+        }
+        clients.clear();
+    }
+
+    private static final class Client {
+        final SseEmitter emitter;
+        final Long userId;
+        final boolean staff;
+        final ArrayBlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        final AtomicBoolean writing = new AtomicBoolean();
+        final AtomicBoolean wroteSinceHeartbeat = new AtomicBoolean();
+        volatile boolean closed;
+        volatile boolean finished;
+
+        Client(SseEmitter emitter, Long userId, boolean staff,
+               ArrayBlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.staff = staff;
+            this.queue = queue;
+        }
+    }
+}
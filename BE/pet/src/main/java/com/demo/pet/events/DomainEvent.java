@@ -0,0 +1,16 @@
+package com.demo.pet.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event handed to subscribers by the outbox relay. {@code payload} is the JSON written
+ * in the same transaction as the change.
+ */
+public record DomainEvent(
+        Long id,
+        DomainEventType type,
+        Long aggregateId,
+        String payload,
+        LocalDateTime occurredAt
+) {
+}
@@ -0,0 +1,39 @@
+package com.demo.pet.events;
+
+import com.demo.pet.models.OutboxEvent;
+import com.demo.pet.repositories.OutboxEventRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes domain events to the outbox table. Must be called inside the transaction that
+ * makes the change, so the event is committed (or rolled back) together with it.
+ */
+@Service
+@RequiredArgsConstructor
+public class DomainEventPublisher {
+    private final OutboxEventRepo outboxEventRepo;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEventType type, Long aggregateId, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + type + " payload", e);
+        }
+
+        outboxEventRepo.save(OutboxEvent.builder()
+                .aggregateType(type.getAggregateType())
+                .aggregateId(aggregateId)
+                .eventType(type.name())
+                .payload(json)
+                .attempts(0)
+                .build());
+    }
+}
@@ -0,0 +1,17 @@
+package com.demo.pet.events;
+
+/**
+ * In-process consumer of domain events. Any Spring bean implementing this interface is
+ * picked up by {@link OutboxRelay}.
+ * <p>
+ * Delivery is at-least-once and ordered per aggregate, so handlers must be idempotent:
+ * if any subscriber throws, the event is retried for every subscriber.
+ */
+public interface DomainEventSubscriber {
+
+    default boolean supports(DomainEventType type) {
+        return true;
+    }
+
+    void onEvent(DomainEvent event) throws Exception;
+}
@@ -0,0 +1,18 @@
+package com.demo.pet.events;
+
+public enum DomainEventType {
+    BOOKING_CREATED("BOOKING"),
+    BOOKING_STATUS_CHANGED("BOOKING"),
+    MEDICAL_RECORD_CREATED("MEDICAL_RECORD"),
+    CAGE_ASSIGNMENT_CHANGED("CAGE");
+
+    private final String aggregateType;
+
+    DomainEventType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+}
@@ -0,0 +1,186 @@
+package com.demo.pet.events;
+
+import com.demo.pet.models.OutboxEvent;
+import com.demo.pet.repositories.OutboxEventRepo;
+import com.demo.pet.repositories.OutboxRelayLeaseRepo;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Drains the outbox table in batches and hands events to {@link DomainEventSubscriber}s.
+ * <p>
+ * Events of one aggregate always land on the same single-threaded stripe and are delivered
+ * in id order; a failed event stops the rest of its aggregate for this round so ordering
+ * survives retries.
+ * <p>
+ * Every node may run the relay, but only the one holding the {@code outbox_relay_lease} row
+ * drains; the others stand by and take over once the holder stops renewing it. The lease is
+ * renewed before each batch, so {@code lease-duration} must be longer than delivering one batch.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    static final String LEASE_NAME = "outbox-relay";
+
+    private final OutboxEventRepo outboxEventRepo;
+    private final OutboxRelayLeaseRepo leaseRepo;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Duration leaseDuration;
+    private final List<DomainEventSubscriber> subscribers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retention;
+    private final ExecutorService[] stripes;
+
+    public OutboxRelay(OutboxEventRepo outboxEventRepo,
+                       OutboxRelayLeaseRepo leaseRepo,
+                       List<DomainEventSubscriber> subscribers,
+                       @Value("${app.outbox.batch-size:100}") int batchSize,
+                       @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${app.outbox.retention:7d}") Duration retention,
+                       @Value("${app.outbox.stripes:4}") int stripeCount,
+                       @Value("${app.outbox.lease-duration:30s}") Duration leaseDuration) {
+        this.outboxEventRepo = outboxEventRepo;
+        this.leaseRepo = leaseRepo;
+        this.leaseDuration = leaseDuration;
+        this.subscribers = subscribers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+        this.stripes = new ExecutorService[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            int stripe = i;
+            this.stripes[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "outbox-stripe-" + stripe);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void drain() {
+        // Keep going while batches come back full, the next tick picks up the rest
+        for (int round = 0; round < 10; round++) {
+            // Node khác đang giữ lease (hoặc node này vừa mất nó): bỏ qua, tick sau thử lại
+            if (!holdLease() || relayBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "${app.outbox.cleanup-cron:0 0 * * * *}")
+    public void purgePublished() {
+        int removed = outboxEventRepo.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        if (removed > 0) {
+            log.info("Removed {} published outbox events", removed);
+        }
+    }
+
+    private boolean holdLease() {
+        LocalDateTime now = LocalDateTime.now();
+        return leaseRepo.tryAcquire(LEASE_NAME, nodeId, now.plus(leaseDuration), now) > 0;
+    }
+
+    int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepo.findByPublishedAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<OutboxEvent>> byAggregate = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            byAggregate.computeIfAbsent(event.getAggregateType() + ":" + event.getAggregateId(),
+                    k -> new ArrayList<>()).add(event);
+        }
+
+        ConcurrentLinkedQueue<Long> delivered = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Long> failed = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(byAggregate.size());
+        byAggregate.forEach((key, events) -> futures.add(CompletableFuture.runAsync(
+                () -> deliverInOrder(events, delivered, failed),
+                stripes[Math.floorMod(key.hashCode(), stripes.length)])));
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        if (!delivered.isEmpty()) {
+            outboxEventRepo.markPublished(delivered, LocalDateTime.now());
+        }
+        if (!failed.isEmpty()) {
+            // Back off until the next tick instead of hammering the failing subscriber
+            outboxEventRepo.incrementAttempts(failed);
+            return 0;
+        }
+        return batch.size();
+    }
+
+    private void deliverInOrder(List<OutboxEvent> events, ConcurrentLinkedQueue<Long> delivered,
+                                ConcurrentLinkedQueue<Long> failed) {
+        for (OutboxEvent event : events) {
+            if (event.getAttempts() >= maxAttempts) {
+                // Give up on poison events so they don't block the aggregate forever
+                log.error("Dropping outbox event {} ({}) after {} attempts",
+                        event.getId(), event.getEventType(), event.getAttempts());
+                delivered.add(event.getId());
+                continue;
+            }
+            try {
+                dispatch(toDomainEvent(event));
+                delivered.add(event.getId());
+            } catch (Exception e) {
+                log.warn("Outbox event {} ({}) failed, will retry: {}",
+                        event.getId(), event.getEventType(), e.getMessage());
+                failed.add(event.getId());
+                return;
+            }
+        }
+    }
+
+    private void dispatch(DomainEvent event) throws Exception {
+        for (DomainEventSubscriber subscriber : subscribers) {
+            if (subscriber.supports(event.type())) {
+                subscriber.onEvent(event);
+            }
+        }
+    }
+
+    private static DomainEvent toDomainEvent(OutboxEvent event) {
+        return new DomainEvent(
+                event.getId(),
+                DomainEventType.valueOf(event.getEventType()),
+                event.getAggregateId(),
+                event.getPayload(),
+                event.getCreatedAt()
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (ExecutorService stripe : stripes) {
+            stripe.shutdown();
+        }
+        // Nhả lease để node khác nhận ngay thay vì chờ hết lease-duration
+        try {
+            leaseRepo.release(LEASE_NAME, nodeId);
+        } catch (RuntimeException e) {
+            log.debug("Could not release the outbox relay lease: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.demo.pet.events;
+
+import com.demo.pet.models.OutboxEvent;
+import com.demo.pet.repositories.OutboxEventRepo;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads the outbox by id with a cursor of its own, for consumers that need every event on every
+ * node. It never marks rows published; that stays with the single {@link OutboxRelay}.
+ * <p>
+ * Ids are taken at insert but become visible at commit, so a lower id can appear after a higher
+ * one. The cursor only moves past an id once every id below it was read, or once the row after
+ * the gap is older than {@code commitGrace} (the missing id was rolled back). Rows above the
+ * cursor are read again on each poll and skipped if already returned. Not thread-safe.
+ */
+public class OutboxTail {
+    private final OutboxEventRepo outboxEventRepo;
+    private final int batchSize;
+    private final Duration commitGrace;
+
+    // null = chưa bắt đầu, lần poll đầu chỉ lấy id lớn nhất (không phát lại lịch sử)
+    private Long cursor;
+    private final Set<Long> returnedAboveCursor = new HashSet<>();
+
+    public OutboxTail(OutboxEventRepo outboxEventRepo, int batchSize, Duration commitGrace) {
+        this.outboxEventRepo = outboxEventRepo;
+        this.batchSize = batchSize;
+        this.commitGrace = commitGrace;
+    }
+
+    /**
+     * Events committed since the previous poll, in id order; each is returned once.
+     */
+    public List<OutboxEvent> poll() {
+        if (cursor == null) {
+            Long maxId = outboxEventRepo.findMaxId();
+            cursor = maxId == null ? 0L : maxId;
+            return List.of();
+        }
+
+        List<OutboxEvent> rows = outboxEventRepo.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, batchSize));
+        LocalDateTime settled = LocalDateTime.now().minus(commitGrace);
+        List<OutboxEvent> fresh = new ArrayList<>(rows.size());
+        long next = cursor;
+        for (OutboxEvent row : rows) {
+            if (returnedAboveCursor.add(row.getId())) {
+                fresh.add(row);
+            }
+            // Liền id trước, hoặc đủ cũ để khoảng trống phía dưới chắc chắn là transaction đã rollback
+            if (row.getId() == next + 1 || row.getCreatedAt() == null || row.getCreatedAt().isBefore(settled)) {
+                next = row.getId();
+            }
+        }
+        long newCursor = next;
+        cursor = newCursor;
+        returnedAboveCursor.removeIf(id -> id <= newCursor);
+        return fresh;
+    }
+
+    /**
+     * Forgets the position; the next poll starts again from the newest event.
+     */
+    public void reset() {
+        cursor = null;
+        returnedAboveCursor.clear();
+    }
+}
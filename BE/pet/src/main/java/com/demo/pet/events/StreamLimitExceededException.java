@@ -0,0 +1,7 @@
+package com.demo.pet.events;
+
+public class StreamLimitExceededException extends RuntimeException {
+    public StreamLimitExceededException(int maxClients) {
+        super("Too many open streams (" + maxClients + "), try again shortly");
+    }
+}
@@ -0,0 +1,225 @@
+package com.demo.pet.idempotency;
+
+import com.demo.pet.resilience.DatabaseUnavailableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Makes the create endpoints safe to retry. A POST carrying {@code Idempotency-Key} runs once per
+ * (user, route, key); a retry gets the stored status and body back with
+ * {@code Idempotent-Replayed: true} and never reaches the controller.
+ * <p>
+ * A retry with the same key but a different body is rejected with 422, and one that arrives while
+ * the first attempt is still running gets 409. Runs after authorization, so only requests that
+ * may actually perform the write claim a key.
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final IdempotencyStore store;
+
+    public IdempotencyFilter(IdempotencyStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !store.isEnabled()
+                || !"POST".equalsIgnoreCase(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || !store.getRoutes().contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String principal = auth != null ? auth.getName() : "anonymous";
+        String route = "POST " + request.getServletPath();
+        byte[] body = request.getInputStream().readAllBytes();
+        String recordKey = sha256((principal + "\n" + route + "\n" + key).getBytes(StandardCharsets.UTF_8));
+        String requestHash = sha256(body);
+
+        IdempotencyStore.Claim claim;
+        try {
+            claim = store.claim(recordKey, route, requestHash);
+        } catch (DatabaseUnavailableException | CannotCreateTransactionException e) {
+            // Không ghi nhận được key thì cũng không được chạy request
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE, "The database is unavailable, try again shortly");
+            return;
+        }
+
+        switch (claim) {
+            case IdempotencyStore.Existing existing -> {
+                if (!existing.requestHash().equals(requestHash)) {
+                    store.recordConflict();
+                    writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                            HEADER + " was already used with a different request body");
+                    return;
+                }
+                store.recordReplay();
+                replay(response, existing.response());
+            }
+            case IdempotencyStore.Busy busy -> {
+                store.recordConflict();
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                writeError(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress");
+            }
+            case IdempotencyStore.Acquired acquired -> execute(new CachedBodyRequest(request, body), response,
+                    filterChain, recordKey, requestHash);
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String recordKey, String requestHash) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean handled = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            // 5xx may be transient (DB down, overload): keep the key free so a retry runs again
+            if (wrapper.getStatus() < 500) {
+                handled = true;
+                storeResponse(recordKey, requestHash, wrapper);
+            }
+        } finally {
+            if (!handled) {
+                store.release(recordKey);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void storeResponse(String recordKey, String requestHash, ContentCachingResponseWrapper wrapper) {
+        try {
+            store.complete(recordKey, requestHash, new IdempotencyStore.Response(
+                    wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray()));
+        } catch (RuntimeException e) {
+            // Controller đã ghi xong: giữ claim (hết hạn sau lock-timeout) để retry không ghi lần hai
+            log.warn("Could not store the idempotent response, keeping the claim until lock-timeout", e);
+        }
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyStore.Response stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        Map<String, Object> data = new HashMap<>();
+        data.put("status", status.value());
+        data.put("message", message);
+
+        response.setStatus(status.value());
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), data);
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The body was read to hash it; hand the same bytes to the controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
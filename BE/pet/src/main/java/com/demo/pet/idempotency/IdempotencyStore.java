@@ -0,0 +1,165 @@
+package com.demo.pet.idempotency;
+
+import com.demo.pet.models.IdempotencyRecord;
+import com.demo.pet.repositories.IdempotencyRecordRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dedupe store behind {@link IdempotencyFilter}. The {@code idempotency_record} table is the
+ * source of truth, so a retry that lands on another node still finds the first attempt; completed
+ * responses never change, so they are also kept in a small in-memory map to skip the lookup.
+ * <p>
+ * A request first claims its key (insert, which only one node can win), runs, then either stores
+ * its response or, on a 5xx, drops the claim so the client can retry for real. A claim whose
+ * owner died, or whose response could not be stored after the write succeeded, is taken over
+ * once {@code lock-timeout} has passed.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    public sealed interface Claim {
+    }
+
+    /** The caller owns the key and must call {@link #complete} or {@link #release}. */
+    public record Acquired() implements Claim {
+    }
+
+    /** Another request with this key is still running. */
+    public record Busy() implements Claim {
+    }
+
+    public record Existing(Response response, String requestHash) implements Claim {
+    }
+
+    public record Response(int status, String contentType, byte[] body) {
+    }
+
+    @Getter
+    private final boolean enabled;
+    @Getter
+    private final List<String> routes;
+    private final IdempotencyRecordRepo recordRepo;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final int memoryMaxEntries;
+    private final ConcurrentHashMap<String, Cached> completed = new ConcurrentHashMap<>();
+
+    private final Counter replayed;
+    private final Counter conflicts;
+
+    public IdempotencyStore(IdempotencyRecordRepo recordRepo,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.idempotency.enabled:true}") boolean enabled,
+                            @Value("${app.idempotency.routes:/api/bookings,/api/records,/api/pets}") List<String> routes,
+                            @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${app.idempotency.lock-timeout:30s}") Duration lockTimeout,
+                            @Value("${app.idempotency.memory-max-entries:10000}") int memoryMaxEntries) {
+        this.recordRepo = recordRepo;
+        this.enabled = enabled;
+        this.routes = routes;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.memoryMaxEntries = memoryMaxEntries;
+        this.replayed = Counter.builder("idempotency.replayed")
+                .description("Retries answered with the stored response").register(meterRegistry);
+        this.conflicts = Counter.builder("idempotency.conflicts")
+                .description("Retries rejected because the first attempt was still running or the body differed")
+                .register(meterRegistry);
+        meterRegistry.gauge("idempotency.memory.entries", completed, ConcurrentHashMap::size);
+    }
+
+    public Claim claim(String recordKey, String route, String requestHash) {
+        Cached cached = completed.get(recordKey);
+        LocalDateTime now = LocalDateTime.now();
+        if (cached != null && cached.expiresAt.isAfter(now)) {
+            return new Existing(cached.response, cached.requestHash);
+        }
+
+        try {
+            recordRepo.insertClaim(recordKey, route, requestHash, now.plus(lockTimeout), now.plus(ttl), now);
+            return new Acquired();
+        } catch (DataIntegrityViolationException duplicate) {
+            // Key already used: replay, report busy, or take over a stale claim
+        }
+
+        Optional<IdempotencyRecord> found = recordRepo.findById(recordKey);
+        if (found.isEmpty()) {
+            // Released or purged between our insert and the lookup; let the client retry
+            return new Busy();
+        }
+        IdempotencyRecord record = found.get();
+        if (record.getExpiresAt().isBefore(now) && recordRepo.deleteIfExpired(recordKey, now) == 1) {
+            // Key reused after its TTL but before the cleanup job ran: treat it as new
+            return claim(recordKey, route, requestHash);
+        }
+        if (record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+            Response response = new Response(record.getResponseStatus(), record.getContentType(),
+                    record.getResponseBody() == null ? new byte[0] : record.getResponseBody().getBytes(StandardCharsets.UTF_8));
+            remember(recordKey, new Cached(response, record.getRequestHash(), record.getExpiresAt()));
+            return new Existing(response, record.getRequestHash());
+        }
+        if (recordRepo.takeOverStaleClaim(recordKey, requestHash, now.plus(lockTimeout), now) == 1) {
+            log.warn("Took over stale idempotency claim for {}", route);
+            return new Acquired();
+        }
+        return new Busy();
+    }
+
+    public void complete(String recordKey, String requestHash, Response response) {
+        recordRepo.complete(recordKey, response.status(), response.contentType(),
+                new String(response.body(), StandardCharsets.UTF_8));
+        remember(recordKey, new Cached(response, requestHash, LocalDateTime.now().plus(ttl)));
+    }
+
+    public void release(String recordKey) {
+        recordRepo.releaseClaim(recordKey);
+    }
+
+    void recordReplay() {
+        replayed.increment();
+    }
+
+    void recordConflict() {
+        conflicts.increment();
+    }
+
+    @Scheduled(cron = "${app.idempotency.cleanup-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        completed.entrySet().removeIf(e -> !e.getValue().expiresAt.isAfter(now));
+        int removed = recordRepo.deleteExpired(now);
+        if (removed > 0) {
+            log.info("Removed {} expired idempotency records", removed);
+        }
+    }
+
+    private void remember(String recordKey, Cached cached) {
+        if (completed.size() >= memoryMaxEntries) {
+            LocalDateTime now = LocalDateTime.now();
+            completed.entrySet().removeIf(e -> !e.getValue().expiresAt.isAfter(now));
+            if (completed.size() >= memoryMaxEntries) {
+                // Full of live entries: the DB still has it, skip the memory copy
+                return;
+            }
+        }
+        completed.put(recordKey, cached);
+    }
+
+    private record Cached(Response response, String requestHash, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.demo.pet.jobs;
+
+import com.demo.pet.models.ServiceBooking;
+import com.demo.pet.repositories.ServiceBookingRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves COMPLETED / CANCELLED bookings older than {@code app.archive.min-age} from
+ * {@code service_booking} into {@code service_booking_archive}.
+ * <p>
+ * Each chunk is copied and deleted in its own short transaction so row locks on the hot
+ * table are held only for a few hundred rows at a time.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingArchiveJob {
+    private static final Set<ServiceBooking.SubscriptionStatus> TERMINAL = EnumSet.of(
+            ServiceBooking.SubscriptionStatus.COMPLETED,
+            ServiceBooking.SubscriptionStatus.CANCELLED);
+
+    private final ServiceBookingRepo bookingRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final int maxChunksPerRun;
+
+    public BookingArchiveJob(ServiceBookingRepo bookingRepo,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${app.archive.min-age:180d}") Duration minAge,
+                             @Value("${app.archive.chunk-size:500}") int chunkSize,
+                             @Value("${app.archive.pause-between-chunks-ms:50}") long pauseMillis,
+                             @Value("${app.archive.max-chunks-per-run:2000}") int maxChunksPerRun) {
+        this.bookingRepo = bookingRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.minAge = minAge;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 30 2 * * *}")
+    public void run() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+        int moved = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Integer count = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            if (count == null || count == 0) {
+                break;
+            }
+            moved += count;
+            if (!pause()) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            log.info("Archived {} bookings finished before {}", moved, cutoff);
+        }
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Long> ids = bookingRepo.findArchivableIds(TERMINAL, cutoff, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int copied = bookingRepo.copyToArchive(ids, LocalDateTime.now());
+        int deleted = bookingRepo.deleteArchived(ids);
+        if (copied != deleted) {
+            // Rolls the chunk back; the next run retries it
+            throw new IllegalStateException("Archive chunk mismatch: copied " + copied + ", deleted " + deleted);
+        }
+        return ids.size();
+    }
+
+    // Gives waiting transactions on service_booking a chance between chunks
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
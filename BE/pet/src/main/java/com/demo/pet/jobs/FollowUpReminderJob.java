@@ -0,0 +1,173 @@
+package com.demo.pet.jobs;
+
+import com.demo.pet.jobs.reminder.MeetingKey;
+import com.demo.pet.jobs.reminder.ReminderCandidate;
+import com.demo.pet.jobs.reminder.ReminderChannel;
+import com.demo.pet.models.FollowUpReminder;
+import com.demo.pet.repositories.FollowUpReminderRepo;
+import com.demo.pet.repositories.MedicalRecordRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns {@code MedicalRecord.nextMeetingDate} into follow-up reminders.
+ * <p>
+ * Every run scans the whole window {@code [today, today + lead-days]}: a keyset walk over
+ * {@code (next_meeting_date, id)} on the index, one chunk per transaction. The window is a few
+ * days of records, so rescanning it is cheap, and a record created or edited since the last run
+ * (a same-day follow-up, a date moved earlier) is picked up at the next run with its lead time.
+ * The unique (record, due date) key keeps reruns idempotent.
+ * <p>
+ * Before sending, each reminder is checked against the record's current date: reminders for a
+ * date that was changed or cleared, or whose record was deleted, are cancelled instead.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.reminders.enabled", havingValue = "true", matchIfMissing = true)
+public class FollowUpReminderJob {
+    private final MedicalRecordRepo recordRepo;
+    private final FollowUpReminderRepo reminderRepo;
+    private final ReminderChannel channel;
+    private final TransactionTemplate transactionTemplate;
+    private final int leadDays;
+    private final int chunkSize;
+    private final int dispatchBatchSize;
+    private final int maxAttempts;
+
+    public FollowUpReminderJob(MedicalRecordRepo recordRepo,
+                               FollowUpReminderRepo reminderRepo,
+                               ReminderChannel channel,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${app.reminders.lead-days:1}") int leadDays,
+                               @Value("${app.reminders.chunk-size:500}") int chunkSize,
+                               @Value("${app.reminders.dispatch-batch-size:100}") int dispatchBatchSize,
+                               @Value("${app.reminders.max-attempts:5}") int maxAttempts) {
+        this.recordRepo = recordRepo;
+        this.reminderRepo = reminderRepo;
+        this.channel = channel;
+        this.transactionTemplate = transactionTemplate;
+        this.leadDays = leadDays;
+        this.chunkSize = chunkSize;
+        this.dispatchBatchSize = dispatchBatchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(cron = "${app.reminders.cron:0 */15 * * * *}")
+    public void run() {
+        int created = scan(LocalDate.now());
+        int sent = dispatch(LocalDate.now());
+        if (created > 0 || sent > 0) {
+            log.info("Follow-up reminders: {} created, {} sent via {}", created, sent, channel.name());
+        }
+    }
+
+    int scan(LocalDate today) {
+        LocalDate until = today.plusDays(leadDays);
+        // Vị trí keyset chỉ giữ trong lượt chạy này, lượt sau quét lại từ đầu cửa sổ
+        ScanPosition position = new ScanPosition(today.minusDays(1), Long.MAX_VALUE);
+        int created = 0;
+        while (position != null) {
+            ScanPosition from = position;
+            List<ReminderCandidate> candidates = recordRepo.findReminderCandidates(
+                    from.lastDate(), from.lastId(), until, PageRequest.of(0, chunkSize));
+            if (candidates.isEmpty()) {
+                break;
+            }
+            Integer chunkCreated = transactionTemplate.execute(status -> schedule(candidates));
+            created += chunkCreated == null ? 0 : chunkCreated;
+            ReminderCandidate last = candidates.get(candidates.size() - 1);
+            position = candidates.size() < chunkSize ? null
+                    : new ScanPosition(last.nextMeetingDate(), last.medicalRecordId());
+        }
+        return created;
+    }
+
+    private int schedule(List<ReminderCandidate> candidates) {
+        Map<String, FollowUpReminder> existing = new HashMap<>();
+        for (FollowUpReminder r : reminderRepo.findByMedicalRecordIdIn(
+                candidates.stream().map(ReminderCandidate::medicalRecordId).toList())) {
+            existing.put(r.getMedicalRecordId() + ":" + r.getDueDate(), r);
+        }
+        List<FollowUpReminder> reminders = new ArrayList<>();
+        for (ReminderCandidate c : candidates) {
+            FollowUpReminder current = existing.get(c.medicalRecordId() + ":" + c.nextMeetingDate());
+            if (current != null) {
+                // Ngày bị đổi đi rồi đổi lại: mở lại nhắc nhở đã hủy (unique key không cho tạo mới)
+                if (current.getStatus() == FollowUpReminder.Status.CANCELLED) {
+                    current.setStatus(FollowUpReminder.Status.PENDING);
+                    reminders.add(current);
+                }
+                continue;
+            }
+            reminders.add(FollowUpReminder.builder()
+                    .medicalRecordId(c.medicalRecordId())
+                    .petId(c.petId())
+                    .petName(c.petName())
+                    .ownerId(c.ownerId())
+                    .recipient(c.ownerEmail())
+                    .dueDate(c.nextMeetingDate())
+                    .sendOn(c.nextMeetingDate().minusDays(leadDays))
+                    .status(FollowUpReminder.Status.PENDING)
+                    .attempts(0)
+                    .build());
+        }
+        reminderRepo.saveAll(reminders);
+        return reminders.size();
+    }
+
+    int dispatch(LocalDate today) {
+        int sent = 0;
+        while (true) {
+            List<FollowUpReminder> batch = reminderRepo.findByStatusAndSendOnLessThanEqualOrderByIdAsc(
+                    FollowUpReminder.Status.PENDING, today, PageRequest.of(0, dispatchBatchSize));
+            if (batch.isEmpty()) {
+                return sent;
+            }
+
+            // Record đã đổi hoặc xóa ngày tái khám (hoặc bị xóa) sau khi nhắc nhở được tạo
+            Set<MeetingKey> current = new HashSet<>(recordRepo.findMeetingKeys(
+                    batch.stream().map(FollowUpReminder::getMedicalRecordId).toList()));
+            List<Long> stale = batch.stream()
+                    .filter(r -> !current.contains(new MeetingKey(r.getMedicalRecordId(), r.getDueDate())))
+                    .map(FollowUpReminder::getId)
+                    .toList();
+            if (!stale.isEmpty()) {
+                reminderRepo.markCancelled(stale);
+                batch = batch.stream().filter(r -> !stale.contains(r.getId())).toList();
+                if (batch.isEmpty()) {
+                    continue;
+                }
+            }
+
+            List<Long> ids = batch.stream().map(FollowUpReminder::getId).toList();
+            try {
+                channel.send(batch);
+            } catch (Exception e) {
+                log.warn("Reminder channel {} failed for {} reminders: {}", channel.name(), batch.size(), e.getMessage());
+                reminderRepo.recordFailedAttempt(ids, maxAttempts);
+                return sent;
+            }
+
+            // A crash between send and this update re-sends the batch: delivery is at-least-once
+            reminderRepo.markSent(ids, LocalDateTime.now());
+            sent += batch.size();
+        }
+    }
+
+    private record ScanPosition(LocalDate lastDate, Long lastId) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.demo.pet.jobs.reminder;
+
+import com.demo.pet.models.FollowUpReminder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Stand-in for a mail gateway: appends one line per reminder to a local file.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.reminders.channel", havingValue = "file", matchIfMissing = true)
+public class FileReminderChannel implements ReminderChannel {
+    private final Path file;
+
+    public FileReminderChannel(@Value("${app.reminders.file:reminders-outbox.log}") String file) {
+        this.file = Path.of(file);
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void send(List<FollowUpReminder> reminders) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (FollowUpReminder reminder : reminders) {
+            lines.append(LocalDateTime.now())
+                    .append(" to=").append(reminder.getRecipient())
+                    .append(" pet=").append(reminder.getPetName())
+                    .append(" record=").append(reminder.getMedicalRecordId())
+                    .append(" follow-up on ").append(reminder.getDueDate())
+                    .append(System.lineSeparator());
+        }
+        Files.writeString(file, lines, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        log.info("Wrote {} follow-up reminders to {}", reminders.size(), file);
+    }
+}
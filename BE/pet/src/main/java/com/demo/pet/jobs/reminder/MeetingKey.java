@@ -0,0 +1,12 @@
+package com.demo.pet.jobs.reminder;
+
+import java.time.LocalDate;
+
+/**
+ * A medical record's current follow-up date, compared against the due date of its reminders.
+ */
+public record MeetingKey(
+        Long medicalRecordId,
+        LocalDate nextMeetingDate
+) {
+}
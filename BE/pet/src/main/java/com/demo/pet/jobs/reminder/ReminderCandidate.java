@@ -0,0 +1,16 @@
+package com.demo.pet.jobs.reminder;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of a medical record with an upcoming follow-up, read without loading the record text.
+ */
+public record ReminderCandidate(
+        Long medicalRecordId,
+        LocalDate nextMeetingDate,
+        Long petId,
+        String petName,
+        Long ownerId,
+        String ownerEmail
+) {
+}
@@ -0,0 +1,15 @@
+package com.demo.pet.jobs.reminder;
+
+import com.demo.pet.models.FollowUpReminder;
+
+import java.util.List;
+
+/**
+ * Delivery channel for follow-up reminders (e-mail, SMS, ...). A batch either succeeds as a
+ * whole or throws, in which case every reminder in it is retried later.
+ */
+public interface ReminderChannel {
+    String name();
+
+    void send(List<FollowUpReminder> reminders) throws Exception;
+}
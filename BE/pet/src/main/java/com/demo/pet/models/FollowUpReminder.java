@@ -0,0 +1,64 @@
+package com.demo.pet.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "follow_up_reminder",
+        uniqueConstraints = {
+                // Một record chỉ có một nhắc nhở cho mỗi ngày hẹn -> job chạy lại không tạo trùng
+                @UniqueConstraint(name = "uk_follow_up_reminder_record_due", columnNames = {"medical_record_id", "due_date"})
+        },
+        indexes = {
+                @Index(name = "idx_follow_up_reminder_status_send_on", columnList = "status, send_on")
+        })
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FollowUpReminder extends BaseModel {
+    // Chỉ lưu id, không ràng buộc FK để xóa medical record không bị chặn
+    @Column(name = "medical_record_id", nullable = false)
+    Long medicalRecordId;
+
+    @Column(name = "pet_id", nullable = false)
+    Long petId;
+
+    @Column(name = "pet_name", length = 100)
+    String petName;
+
+    @Column(name = "owner_id", nullable = false)
+    Long ownerId;
+
+    @Column(name = "recipient", length = 255)
+    String recipient;
+
+    // Ngày tái khám
+    @Column(name = "due_date", nullable = false)
+    LocalDate dueDate;
+
+    // Ngày gửi nhắc nhở
+    @Column(name = "send_on", nullable = false)
+    LocalDate sendOn;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", columnDefinition = "VARCHAR(20) DEFAULT 'PENDING'")
+    Status status;
+
+    @Column(name = "attempts", nullable = false)
+    int attempts;
+
+    @Column(name = "sent_at")
+    LocalDateTime sentAt;
+
+    public enum Status {
+        // CANCELLED: ngày tái khám của record đã đổi hoặc bị xóa trước khi gửi
+        PENDING, SENT, FAILED, CANCELLED
+    }
+}
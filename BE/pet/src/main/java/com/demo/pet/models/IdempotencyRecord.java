@@ -0,0 +1,59 @@
+package com.demo.pet.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a create request sent with an {@code Idempotency-Key}, shared by all nodes.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "idempotency_record", indexes = {
+        @Index(name = "idx_idempotency_record_expires_at", columnList = "expires_at")
+})
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "record_key", length = 64)
+    String recordKey;
+
+    @Column(name = "route", length = 100, nullable = false)
+    String route;
+
+    @Column(name = "request_hash", length = 64, nullable = false)
+    String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    Status status;
+
+    @Column(name = "response_status")
+    Integer responseStatus;
+
+    @Column(name = "content_type", length = 100)
+    String contentType;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    String responseBody;
+
+    // Request đang chạy giữ khóa tới thời điểm này; quá hạn thì node khác được chạy lại
+    @Column(name = "locked_until")
+    LocalDateTime lockedUntil;
+
+    @Column(name = "expires_at", nullable = false)
+    LocalDateTime expiresAt;
+
+    @Column(name = "created_at")
+    LocalDateTime createdAt;
+
+    public enum Status {
+        IN_PROGRESS, COMPLETED
+    }
+}
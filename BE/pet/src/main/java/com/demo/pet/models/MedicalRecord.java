@@ -9,7 +9,10 @@ import java.time.LocalDate;
 @Getter
 @Setter
 @Entity
-@Table(name = "medical_record")
+@Table(name = "medical_record", indexes = {
+        // Job nhắc lịch tái khám quét theo next_meeting_date
+        @Index(name = "idx_medical_record_next_meeting_date", columnList = "next_meeting_date")
+})
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @NoArgsConstructor
 @AllArgsConstructor
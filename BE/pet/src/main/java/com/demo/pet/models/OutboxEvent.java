@@ -0,0 +1,39 @@
+package com.demo.pet.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "outbox_event", indexes = {
+        // Relay chỉ quét các event chưa publish theo thứ tự id
+        @Index(name = "idx_outbox_event_published_at", columnList = "published_at, id")
+})
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent extends BaseModel {
+    @Column(name = "aggregate_type", length = 50, nullable = false)
+    String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    Long aggregateId;
+
+    @Column(name = "event_type", length = 50, nullable = false)
+    String eventType;
+
+    @Column(name = "payload", columnDefinition = "TEXT")
+    String payload;
+
+    // null = chưa được relay gửi tới subscriber
+    @Column(name = "published_at")
+    LocalDateTime publishedAt;
+
+    @Column(name = "attempts", nullable = false)
+    int attempts;
+}
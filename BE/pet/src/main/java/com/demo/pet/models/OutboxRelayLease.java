@@ -0,0 +1,31 @@
+package com.demo.pet.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease on a relay job, shared by all nodes: only the owner drains until {@code leaseUntil}.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "outbox_relay_lease")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxRelayLease {
+    @Id
+    @Column(name = "name", length = 50)
+    String name;
+
+    @Column(name = "owner", length = 100)
+    String owner;
+
+    // Owner không gia hạn trước thời điểm này thì node khác được nhận lease
+    @Column(name = "lease_until")
+    LocalDateTime leaseUntil;
+}
@@ -47,6 +47,9 @@ public class Pet extends BaseModel {
     @OneToMany(mappedBy = "pet")
     List<MedicalRecord> medicalRecordList;
 
+    @OneToMany(mappedBy = "pet")
+    List<ServiceBooking> serviceBookingList;
+
 
     public enum Gender {
         MALE, FEMALE
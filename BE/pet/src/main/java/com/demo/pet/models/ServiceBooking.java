@@ -9,7 +9,10 @@ import java.time.LocalDate;
 @Getter
 @Setter
 @Entity
-@Table(name = "service_booking")
+@Table(name = "service_booking", indexes = {
+        // Job archive tìm booking đã kết thúc theo trạng thái + thời điểm cập nhật
+        @Index(name = "idx_service_booking_status_updated_at", columnList = "status, updated_at")
+})
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,6 +39,11 @@ public class ServiceBooking extends BaseModel {
     @JoinColumn(name = "service_id", nullable = false)
     Services services;
 
+    // Lazy: danh sách/chi tiết lấy tên pet qua join trong ServiceBookingRepo, không nạp cả Pet
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pet_id")
+    Pet pet;
+
     public enum SubscriptionStatus {
         PENDING, ACCEPTED, COMPLETED, CANCELLED
     }
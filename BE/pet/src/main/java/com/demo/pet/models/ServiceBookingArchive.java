@@ -0,0 +1,60 @@
+package com.demo.pet.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * COMPLETED / CANCELLED bookings moved out of {@code service_booking} by the archive job.
+ * Keeps the original id so links and history stay stable; user, service and pet are plain ids.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "service_booking_archive", indexes = {
+        @Index(name = "idx_service_booking_archive_user", columnList = "user_id, start_date"),
+        @Index(name = "idx_service_booking_archive_service", columnList = "service_id, start_date"),
+        @Index(name = "idx_service_booking_archive_pet", columnList = "pet_id")
+})
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ServiceBookingArchive {
+    @Id
+    Long id;
+
+    @Column(name = "start_date", nullable = false)
+    LocalDate startDate;
+
+    @Column(name = "end_date")
+    LocalDate endDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", columnDefinition = "VARCHAR(20)")
+    ServiceBooking.SubscriptionStatus status;
+
+    @Column(name = "notes", columnDefinition = "TEXT")
+    String notes;
+
+    @Column(name = "user_id", nullable = false)
+    Long userId;
+
+    @Column(name = "service_id", nullable = false)
+    Long serviceId;
+
+    @Column(name = "pet_id")
+    Long petId;
+
+    @Column(name = "created_at")
+    LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    LocalDateTime archivedAt;
+}
@@ -1,12 +1,33 @@
 package com.demo.pet.repositories;
 
 import com.demo.pet.models.Cage;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CageRepo extends JpaRepository<Cage, Long> {
-    Optional<Cage> findByPetId(Long petId);
+    // Lọc thẳng trên cage.pet_id (unique), tránh left join sang pet
+    @Query("select c from Cage c where c.pet.id = :petId")
+    Optional<Cage> findByPetId(@Param("petId") Long petId);
+
+    // Bảng chuồng: nạp pet và chủ của pet trong cùng câu, không query thêm cho từng chuồng
+    @Override
+    @Query("select c from Cage c left join fetch c.pet p left join fetch p.user")
+    List<Cage> findAll();
+
+    // Theo idx_cage_status, cùng fetch như findAll
+    @Query("select c from Cage c left join fetch c.pet p left join fetch p.user where c.status = :status")
+    List<Cage> findByStatus(@Param("status") Cage.Status status);
+
+    // SELECT ... FOR UPDATE; gọi theo thứ tự id tăng dần để các giao dịch không khóa chéo nhau
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Cage c where c.id = :id")
+    Optional<Cage> findByIdForUpdate(@Param("id") Long id);
 }
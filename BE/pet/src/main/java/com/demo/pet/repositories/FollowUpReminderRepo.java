@@ -0,0 +1,44 @@
+package com.demo.pet.repositories;
+
+import com.demo.pet.models.FollowUpReminder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FollowUpReminderRepo extends JpaRepository<FollowUpReminder, Long> {
+    List<FollowUpReminder> findByStatusAndSendOnLessThanEqualOrderByIdAsc(
+            FollowUpReminder.Status status, LocalDate sendOn, Pageable pageable);
+
+    // Nhắc nhở đã có của các record, dùng để bỏ qua (hoặc mở lại) khi quét lại; đi theo unique key
+    List<FollowUpReminder> findByMedicalRecordIdIn(Collection<Long> recordIds);
+
+    @Transactional
+    @Modifying
+    @Query("update FollowUpReminder r set r.status = com.demo.pet.models.FollowUpReminder.Status.SENT, " +
+            "r.sentAt = :sentAt where r.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("update FollowUpReminder r set r.status = com.demo.pet.models.FollowUpReminder.Status.CANCELLED " +
+            "where r.id in :ids")
+    int markCancelled(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update FollowUpReminder r set r.attempts = r.attempts + 1, " +
+            "r.status = case when r.attempts + 1 >= :maxAttempts " +
+            "then com.demo.pet.models.FollowUpReminder.Status.FAILED else r.status end " +
+            "where r.id in :ids")
+    int recordFailedAttempt(@Param("ids") Collection<Long> ids, @Param("maxAttempts") int maxAttempts);
+}
@@ -0,0 +1,56 @@
+package com.demo.pet.repositories;
+
+import com.demo.pet.models.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepo extends JpaRepository<IdempotencyRecord, String> {
+    // Insert thẳng (không merge) để hai request cùng key va nhau ở khóa chính
+    @Transactional
+    @Modifying
+    @Query(value = "insert into idempotency_record (record_key, route, request_hash, status, locked_until, expires_at, created_at) "
+            + "values (:key, :route, :hash, 'IN_PROGRESS', :lockedUntil, :expiresAt, :now)", nativeQuery = true)
+    int insertClaim(@Param("key") String key, @Param("route") String route, @Param("hash") String hash,
+                    @Param("lockedUntil") LocalDateTime lockedUntil, @Param("expiresAt") LocalDateTime expiresAt,
+                    @Param("now") LocalDateTime now);
+
+    // Take over a claim whose owner stopped (crash, timeout) without completing or releasing it
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.requestHash = :hash, r.lockedUntil = :lockedUntil "
+            + "where r.recordKey = :key and r.status = com.demo.pet.models.IdempotencyRecord.Status.IN_PROGRESS "
+            + "and r.lockedUntil < :now")
+    int takeOverStaleClaim(@Param("key") String key, @Param("hash") String hash,
+                           @Param("lockedUntil") LocalDateTime lockedUntil, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.status = com.demo.pet.models.IdempotencyRecord.Status.COMPLETED, "
+            + "r.responseStatus = :responseStatus, r.contentType = :contentType, r.responseBody = :body, "
+            + "r.lockedUntil = null where r.recordKey = :key")
+    int complete(@Param("key") String key, @Param("responseStatus") int responseStatus,
+                 @Param("contentType") String contentType, @Param("body") String body);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.recordKey = :key "
+            + "and r.status = com.demo.pet.models.IdempotencyRecord.Status.IN_PROGRESS")
+    int releaseClaim(@Param("key") String key);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.recordKey = :key and r.expiresAt < :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
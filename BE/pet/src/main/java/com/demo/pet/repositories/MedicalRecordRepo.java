@@ -1,13 +1,52 @@
 package com.demo.pet.repositories;
 
+import com.demo.pet.dtos.MedicalRecordDTO;
+import com.demo.pet.jobs.reminder.MeetingKey;
+import com.demo.pet.jobs.reminder.ReminderCandidate;
 import com.demo.pet.models.MedicalRecord;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MedicalRecordRepo extends JpaRepository<MedicalRecord, Long> {
-    List<MedicalRecord> findByPetId(Long petId);
-    List<MedicalRecord> findByUserId(Long userId);
+    // DTO chỉ cần id của pet/user: đọc thẳng cột khóa ngoại trong một câu, không nạp Pet/User (và cage, chủ
+    // của từng pet) cho mỗi hồ sơ; lọc trên cột khóa ngoại để giữ index pet_id / user_id
+    String DETAILS = "select new com.demo.pet.dtos.MedicalRecordDTO(r.id, r.diagnosis, r.prescription, r.notes, " +
+            "r.nextMeetingDate, r.pet.id, r.user.id) from MedicalRecord r";
+
+    @Query(DETAILS + " where r.pet.id = :petId order by r.id")
+    List<MedicalRecordDTO> findDetailsByPetId(@Param("petId") Long petId);
+
+    @Query(DETAILS + " where r.user.id = :userId order by r.id")
+    List<MedicalRecordDTO> findDetailsByUserId(@Param("userId") Long userId);
+
+    // Guard trước khi xóa: EXISTS trên index pet_id / user_id thay vì nạp cả danh sách hồ sơ
+    @Query("select case when exists (select 1 from MedicalRecord r where r.pet.id = :petId) then true else false end")
+    boolean existsByPetId(@Param("petId") Long petId);
+
+    @Query("select case when exists (select 1 from MedicalRecord r where r.user.id = :userId) then true else false end")
+    boolean existsByUserId(@Param("userId") Long userId);
+
+    // Khóa (record id, ngày tái khám) hiện tại, để bỏ nhắc nhở của ngày cũ trước khi gửi
+    @Query("select new com.demo.pet.jobs.reminder.MeetingKey(r.id, r.nextMeetingDate) from MedicalRecord r " +
+            "where r.id in :ids and r.nextMeetingDate is not null")
+    List<MeetingKey> findMeetingKeys(@Param("ids") Collection<Long> ids);
+
+    // Keyset trên (next_meeting_date, id), đi theo idx_medical_record_next_meeting_date
+    @Query("select new com.demo.pet.jobs.reminder.ReminderCandidate(r.id, r.nextMeetingDate, p.id, p.name, u.id, u.email) " +
+            "from MedicalRecord r join r.pet p join p.user u " +
+            "where r.nextMeetingDate <= :until " +
+            "and (r.nextMeetingDate > :afterDate or (r.nextMeetingDate = :afterDate and r.id > :afterId)) " +
+            "order by r.nextMeetingDate, r.id")
+    List<ReminderCandidate> findReminderCandidates(@Param("afterDate") LocalDate afterDate,
+                                                   @Param("afterId") Long afterId,
+                                                   @Param("until") LocalDate until,
+                                                   Pageable pageable);
 }
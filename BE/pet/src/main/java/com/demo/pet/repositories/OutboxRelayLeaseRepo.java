@@ -0,0 +1,27 @@
+package com.demo.pet.repositories;
+
+import com.demo.pet.models.OutboxRelayLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OutboxRelayLeaseRepo extends JpaRepository<OutboxRelayLease, String> {
+    // Take or renew the lease: succeeds for the current owner or once the previous owner's lease lapsed
+    @Transactional
+    @Modifying
+    @Query("update OutboxRelayLease l set l.owner = :owner, l.leaseUntil = :leaseUntil "
+            + "where l.name = :name and (l.owner = :owner or l.leaseUntil is null or l.leaseUntil < :now)")
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner,
+                   @Param("leaseUntil") LocalDateTime leaseUntil, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxRelayLease l set l.leaseUntil = null where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
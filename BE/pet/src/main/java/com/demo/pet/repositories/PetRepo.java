@@ -2,9 +2,22 @@ package com.demo.pet.repositories;
 
 import com.demo.pet.models.Pet;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface PetRepo extends JpaRepository<Pet, Long> {
-    List<Pet> findByUserId(Long userId);
+    // Lọc thẳng trên pet.user_id; chủ và chuồng nạp cùng câu thay vì một query cho mỗi pet
+    @Query("select p from Pet p join fetch p.user left join fetch p.cage where p.user.id = :userId")
+    List<Pet> findByUserId(@Param("userId") Long userId);
+
+    // EXISTS trên index khóa ngoại pet.user_id, dừng ở dòng đầu tiên thay vì nạp cả danh sách
+    @Query("select case when exists (select 1 from Pet p where p.user.id = :userId) then true else false end")
+    boolean existsByUserId(@Param("userId") Long userId);
+
+    // Chỉ lấy chủ sở hữu, dùng để kiểm tra pet khi gắn vào booking
+    @Query("select p.user.id from Pet p where p.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
 }
@@ -0,0 +1,36 @@
+package com.demo.pet.repositories;
+
+import com.demo.pet.dtos.ServiceBookingDTO;
+import com.demo.pet.models.ServiceBookingArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ServiceBookingArchiveRepo extends JpaRepository<ServiceBookingArchive, Long> {
+    // Cùng dạng với ServiceBookingRepo.DETAILS; pet/dịch vụ có thể đã bị xóa nên dùng left join
+    String DETAILS = "select new com.demo.pet.dtos.ServiceBookingDTO(a.id, a.startDate, a.endDate, a.notes, " +
+            "a.userId, a.serviceId, a.petId, p.name, a.status, s.name, s.price) " +
+            "from ServiceBookingArchive a left join Pet p on p.id = a.petId left join Services s on s.id = a.serviceId";
+
+    // Keyset: trang tiếp theo bắt đầu ngay dưới id cuối của trang trước, đi ngược theo khóa chính và dừng ở LIMIT
+    @Query(DETAILS + " where a.id < :beforeId order by a.id desc")
+    List<ServiceBookingDTO> findDetailsBefore(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query(DETAILS + " where a.id = :id")
+    Optional<ServiceBookingDTO> findDetailsById(@Param("id") Long id);
+
+    @Query(DETAILS + " where a.userId = :userId order by a.id")
+    List<ServiceBookingDTO> findDetailsByUserId(@Param("userId") Long userId);
+
+    @Query(DETAILS + " where a.serviceId = :serviceId order by a.id")
+    List<ServiceBookingDTO> findDetailsByServiceId(@Param("serviceId") Long serviceId);
+
+    boolean existsByUserId(Long userId);
+    boolean existsByPetId(Long petId);
+}
@@ -1,13 +1,66 @@
 package com.demo.pet.repositories;
 
+import com.demo.pet.dtos.ServiceBookingDTO;
 import com.demo.pet.models.ServiceBooking;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ServiceBookingRepo extends JpaRepository<ServiceBooking, Long> {
-    List<ServiceBooking> findByUserId(Long userId);
-    List<ServiceBooking> findByServicesId(Long serviceId);
+    // Payload danh sách/chi tiết trong một câu join: tên pet, trạng thái, tên và giá dịch vụ đi kèm,
+    // client không phải gọi thêm /status hay tra pet cho từng dòng
+    String DETAILS = "select new com.demo.pet.dtos.ServiceBookingDTO(b.id, b.startDate, b.endDate, b.notes, " +
+            "b.user.id, s.id, p.id, p.name, b.status, s.name, s.price) " +
+            "from ServiceBooking b join b.services s left join b.pet p";
+
+    @Query(DETAILS + " order by b.id")
+    List<ServiceBookingDTO> findAllDetails();
+
+    @Query(DETAILS + " order by b.id")
+    List<ServiceBookingDTO> findAllDetails(Pageable pageable);
+
+    @Query(DETAILS + " where b.id = :id")
+    Optional<ServiceBookingDTO> findDetailsById(@Param("id") Long id);
+
+    @Query(DETAILS + " where b.user.id = :userId order by b.id")
+    List<ServiceBookingDTO> findDetailsByUserId(@Param("userId") Long userId);
+
+    @Query(DETAILS + " where s.id = :serviceId order by b.id")
+    List<ServiceBookingDTO> findDetailsByServiceId(@Param("serviceId") Long serviceId);
+
+    // Lọc thẳng trên cột khóa ngoại: derived query sinh left join sang users và bỏ qua index
+    @Query("select case when exists (select 1 from ServiceBooking b where b.user.id = :userId) then true else false end")
+    boolean existsByUserId(@Param("userId") Long userId);
+
+    @Query("select case when exists (select 1 from ServiceBooking b where b.pet.id = :petId) then true else false end")
+    boolean existsByPetId(@Param("petId") Long petId);
+
+    // Archive job: id các booking đã kết thúc và không đổi từ trước cutoff
+    @Query("select b.id from ServiceBooking b where b.status in :statuses and b.updatedAt < :cutoff order by b.id")
+    List<Long> findArchivableIds(@Param("statuses") Collection<ServiceBooking.SubscriptionStatus> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 Pageable pageable);
+
+    // Điều kiện status được lặp lại để bỏ qua booking vừa đổi trạng thái giữa hai câu lệnh
+    @Modifying
+    @Query(value = "insert into service_booking_archive " +
+            "(id, start_date, end_date, status, notes, user_id, service_id, pet_id, created_at, updated_at, archived_at) " +
+            "select id, start_date, end_date, status, notes, user_id, service_id, pet_id, created_at, updated_at, :archivedAt " +
+            "from service_booking where id in (:ids) and status in ('COMPLETED', 'CANCELLED')",
+            nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query(value = "delete from service_booking where id in (:ids) and status in ('COMPLETED', 'CANCELLED')",
+            nativeQuery = true)
+    int deleteArchived(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,104 @@
+package com.demo.pet.resilience;
+
+import com.demo.pet.resilience.AdaptiveConcurrencyLimiter.Priority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admits API requests through {@link AdaptiveConcurrencyLimiter} and answers 503 right away
+ * when the limit for the request's priority is reached. Runs ahead of Spring Security, so a
+ * shed request costs neither a session lookup nor a database call.
+ * <p>
+ * Routes are matched as {@code "METHOD /ant/pattern"} or just {@code "/ant/pattern"}; anything
+ * not listed as high or low priority is normal.
+ */
+public class AdaptiveConcurrencyFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final List<String> highPriorityRoutes;
+    private final List<String> lowPriorityRoutes;
+
+    public AdaptiveConcurrencyFilter(AdaptiveConcurrencyLimiter limiter,
+                                     List<String> highPriorityRoutes,
+                                     List<String> lowPriorityRoutes) {
+        this.limiter = limiter;
+        this.highPriorityRoutes = highPriorityRoutes;
+        this.lowPriorityRoutes = lowPriorityRoutes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getServletPath().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Priority priority = classify(request);
+        if (!limiter.tryAcquire(priority)) {
+            reject(response);
+            return;
+        }
+
+        int inFlightAtStart = limiter.getInFlight();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start, inFlightAtStart);
+        }
+    }
+
+    Priority classify(HttpServletRequest request) {
+        if (matchesAny(highPriorityRoutes, request)) {
+            return Priority.HIGH;
+        }
+        if (matchesAny(lowPriorityRoutes, request)) {
+            return Priority.LOW;
+        }
+        return Priority.NORMAL;
+    }
+
+    private boolean matchesAny(List<String> routes, HttpServletRequest request) {
+        String path = request.getServletPath();
+        for (String route : routes) {
+            int space = route.indexOf(' ');
+            if (space < 0) {
+                if (pathMatcher.match(route, path)) {
+                    return true;
+                }
+            } else if (route.substring(0, space).equalsIgnoreCase(request.getMethod())
+                    && pathMatcher.match(route.substring(space + 1).trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        Map<String, Object> data = new HashMap<>();
+        data.put("message", "Server is overloaded, try again shortly");
+        data.put("error", "Service Unavailable");
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), data);
+    }
+}
@@ -0,0 +1,138 @@
+package com.demo.pet.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of requests in flight with a limit that follows measured latency
+ * (gradient algorithm): while recent latency stays close to the long-term baseline the limit
+ * grows by about sqrt(limit) per sample, and when it rises, e.g. because MySQL slowed down, the
+ * limit shrinks in proportion, so excess requests are turned away fast instead of queueing in
+ * Tomcat.
+ * <p>
+ * Lower priorities may only use a share of the limit, which leaves the rest as a reserve for
+ * higher ones.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.concurrency.enabled", havingValue = "true")
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority {
+        HIGH, NORMAL, LOW
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final Map<Priority, Double> shares = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejections = new EnumMap<>(Priority.class);
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    // Chỉ được sửa trong onSample (synchronized)
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${app.concurrency.initial-limit:50}") int initialLimit,
+                                      @Value("${app.concurrency.min-limit:10}") int minLimit,
+                                      @Value("${app.concurrency.max-limit:180}") int maxLimit,
+                                      @Value("${app.concurrency.rtt-tolerance:1.5}") double tolerance,
+                                      @Value("${app.concurrency.smoothing:0.2}") double smoothing,
+                                      @Value("${app.concurrency.normal-share:0.9}") double normalShare,
+                                      @Value("${app.concurrency.low-share:0.6}") double lowShare) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        shares.put(Priority.HIGH, 1.0);
+        shares.put(Priority.NORMAL, normalShare);
+        shares.put(Priority.LOW, lowShare);
+
+        for (Priority priority : Priority.values()) {
+            rejections.put(priority, Counter.builder("concurrency.limit.rejected")
+                    .description("Requests shed because the concurrency limit was reached")
+                    .tag("priority", priority.name().toLowerCase()).register(meterRegistry));
+        }
+        meterRegistry.gauge("concurrency.limit", this, l -> l.limit);
+        meterRegistry.gauge("concurrency.inflight", inFlight);
+    }
+
+    /**
+     * @return true if the request may proceed; the caller must then call {@link #release} exactly once
+     */
+    public boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * shares.get(priority)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejections.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param rttNanos       time the request spent in the application
+     * @param inFlightAtStart requests in flight when it was admitted, including itself
+     */
+    public void release(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        onSample(rttNanos, inFlightAtStart);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        // Ngắn hạn ~10 mẫu, dài hạn ~500 mẫu
+        shortRttNanos += (rttNanos - shortRttNanos) * 0.2;
+        longRttNanos += (rttNanos - longRttNanos) * 0.004;
+        if (longRttNanos > shortRttNanos * 2) {
+            // Load dropped a lot; let the baseline catch up instead of over-growing the limit
+            longRttNanos *= 0.95;
+        }
+        if (inFlightAtStart * 2 < estimatedLimit) {
+            // Far below the limit: latency says nothing about whether it is too high or too low
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double next = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - smoothing) + next * smoothing));
+
+        int rounded = (int) estimatedLimit;
+        if (rounded != limit) {
+            log.debug("Concurrency limit {} -> {} (short rtt {} ms, long rtt {} ms)", limit, rounded,
+                    String.format("%.1f", shortRttNanos / 1e6), String.format("%.1f", longRttNanos / 1e6));
+            limit = rounded;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.demo.pet.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Applies {@link ApiRateLimiter} to /api/** once the security context is known and before
+ * authorization, so a rejected request never reaches a controller, service or repository.
+ * <p>
+ * Ids and e-mails in the path are folded into placeholders, so {@code /api/bookings/7/status}
+ * and {@code /api/bookings/8/status} share one bucket.
+ */
+public class ApiRateLimitFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ApiRateLimiter rateLimiter;
+
+    public ApiRateLimitFilter(ApiRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled() || !request.getServletPath().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String principal = null;
+        String role = null;
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            principal = auth.getName();
+            role = auth.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .filter(a -> a.startsWith("ROLE_"))
+                    .map(a -> a.substring("ROLE_".length()))
+                    .findFirst().orElse(null);
+        }
+
+        long waitMillis = rateLimiter.tryConsume(principal, role, request.getRemoteAddr(),
+                request.getMethod() + " " + routeOf(request.getServletPath()));
+        if (waitMillis <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, (waitMillis + 999) / 1000);
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("message", "Too many requests, slow down");
+        data.put("error", "Too Many Requests");
+        data.put("retry_after_seconds", retryAfterSeconds);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), data);
+    }
+
+    static String routeOf(String path) {
+        String[] segments = path.split("/");
+        StringBuilder route = new StringBuilder(path.length());
+        for (String segment : segments) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            route.append('/');
+            if (segment.chars().allMatch(Character::isDigit)) {
+                route.append("{id}");
+            } else if (segment.indexOf('@') >= 0) {
+                route.append("{email}");
+            } else {
+                route.append(segment);
+            }
+        }
+        return route.toString();
+    }
+}
@@ -0,0 +1,186 @@
+package com.demo.pet.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per caller and route, so one client looping on an endpoint drains only its own
+ * bucket for that endpoint. Owners get a smaller bucket than staff, doctors and admins;
+ * anonymous callers are keyed by IP.
+ * <p>
+ * Like {@code LoginAttemptThrottle}, buckets are lock-free (one CAS per request) and the map is
+ * capped: when it is full, buckets that have refilled completely are dropped, and if that frees
+ * nothing the request goes through untracked rather than being rejected.
+ */
+@Component
+public class ApiRateLimiter {
+
+    @Getter
+    private final boolean enabled;
+    private final int maxEntries;
+    private final Map<String, Policy> policies = new HashMap<>();
+    private final Policy anonymousPolicy;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean(false);
+    private final long epochMillis = System.currentTimeMillis();
+
+    private final Map<String, Counter> rejections = new HashMap<>();
+    private final Counter untracked;
+
+    public ApiRateLimiter(MeterRegistry meterRegistry,
+                          @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                          @Value("${app.rate-limit.max-entries:100000}") int maxEntries,
+                          @Value("${app.rate-limit.owner.capacity:20}") int ownerCapacity,
+                          @Value("${app.rate-limit.owner.refill-per-second:5}") double ownerRefill,
+                          @Value("${app.rate-limit.staff.capacity:60}") int staffCapacity,
+                          @Value("${app.rate-limit.staff.refill-per-second:20}") double staffRefill,
+                          @Value("${app.rate-limit.anonymous.capacity:10}") int anonymousCapacity,
+                          @Value("${app.rate-limit.anonymous.refill-per-second:2}") double anonymousRefill) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+
+        Policy owner = new Policy(ownerCapacity, ownerRefill);
+        Policy staff = new Policy(staffCapacity, staffRefill);
+        policies.put("OWNER", owner);
+        policies.put("STAFF", staff);
+        policies.put("DOCTOR", staff);
+        policies.put("ADMIN", staff);
+        this.anonymousPolicy = new Policy(anonymousCapacity, anonymousRefill);
+
+        for (String role : new String[]{"OWNER", "STAFF", "DOCTOR", "ADMIN", "ANONYMOUS"}) {
+            rejections.put(role, Counter.builder("ratelimit.rejected")
+                    .description("Requests rejected by the per-user rate limit")
+                    .tag("role", role.toLowerCase()).register(meterRegistry));
+        }
+
+        this.untracked = Counter.builder("ratelimit.untracked")
+                .description("Requests let through untracked because the bucket table was full").register(meterRegistry);
+        meterRegistry.gauge("ratelimit.tracked.buckets", buckets, ConcurrentHashMap::size);
+    }
+
+    /**
+     * @param principal user name, or null for an anonymous caller
+     * @param role      role without the ROLE_ prefix; unknown roles get the owner limits
+     * @return milliseconds until a token is available, or 0 if the request may proceed
+     */
+    public long tryConsume(String principal, String role, String ip, String route) {
+        String key;
+        Policy policy;
+        if (principal == null) {
+            key = "ip:" + ip + " " + route;
+            policy = anonymousPolicy;
+            role = "ANONYMOUS";
+        } else {
+            key = "user:" + principal + " " + route;
+            if (!policies.containsKey(role)) {
+                role = "OWNER";
+            }
+            policy = policies.get(role);
+        }
+
+        long now = System.currentTimeMillis() - epochMillis;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxEntries) {
+                sweep(now);
+                if (buckets.size() >= maxEntries) {
+                    untracked.increment();
+                    return 0;
+                }
+            }
+            Policy bucketPolicy = policy;
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(bucketPolicy, now));
+        }
+
+        long wait = bucket.tryConsume(now);
+        if (wait > 0) {
+            rejections.get(role).increment();
+        }
+        return wait;
+    }
+
+    // Only one thread sweeps at a time; the others skip instead of waiting
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.entrySet().removeIf(e -> e.getValue().isFull(now));
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * @param capacity        burst size in tokens (one token per request)
+     * @param refillPerSecond sustained requests per second
+     */
+    public record Policy(int capacity, double refillPerSecond) {
+        public Policy {
+            if (capacity <= 0 || capacity > TokenBucket.MAX_TOKENS || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("Rate limit capacity must be 1.." + TokenBucket.MAX_TOKENS
+                        + " and refill rate positive");
+            }
+        }
+    }
+
+    /**
+     * Packs the last refill time (high bits, milliseconds since the limiter started) and the
+     * token count in thousandths (low bits) into one long, so refill and take is a single CAS.
+     * Takes the clock as an argument, which lets tests run it on made-up times.
+     */
+    public static final class TokenBucket {
+        private static final int TOKEN_BITS = 24;
+        private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+        public static final int MAX_TOKENS = (int) (TOKEN_MASK / 1000);
+
+        private final AtomicLong state;
+        private final long capacityMilli;
+        private final double refillMilliPerMs;
+
+        public TokenBucket(Policy policy, long now) {
+            this.capacityMilli = policy.capacity() * 1000L;
+            this.refillMilliPerMs = policy.refillPerSecond();
+            this.state = new AtomicLong(pack(now, capacityMilli));
+        }
+
+        public long tryConsume(long now) {
+            while (true) {
+                long current = state.get();
+                long tokens = refilled(current, now);
+                if (tokens < 1000) {
+                    return (long) Math.ceil((1000 - tokens) / refillMilliPerMs);
+                }
+                // Never move the refill time backwards when another thread got a later clock
+                long time = Math.max(now, current >>> TOKEN_BITS);
+                if (state.compareAndSet(current, pack(time, tokens - 1000))) {
+                    return 0;
+                }
+            }
+        }
+
+        public boolean isFull(long now) {
+            return refilled(state.get(), now) >= capacityMilli;
+        }
+
+        private long refilled(long packed, long now) {
+            long last = packed >>> TOKEN_BITS;
+            long tokens = packed & TOKEN_MASK;
+            long elapsed = Math.max(0, now - last);
+            return Math.min(capacityMilli, tokens + (long) (elapsed * refillMilliPerMs));
+        }
+
+        private static long pack(long time, long tokens) {
+            return (time << TOKEN_BITS) | tokens;
+        }
+    }
+}
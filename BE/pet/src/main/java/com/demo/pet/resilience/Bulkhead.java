@@ -0,0 +1,65 @@
+package com.demo.pet.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many request threads one {@link WorkloadClass} may occupy at once. A request waits
+ * at most {@code maxWait} for a slot and is rejected after that.
+ */
+public class Bulkhead {
+    private final WorkloadClass workload;
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final Semaphore permits;
+    private final Counter rejected;
+    private final Timer waitTimer;
+
+    public Bulkhead(WorkloadClass workload, int maxConcurrent, Duration maxWait, MeterRegistry meterRegistry) {
+        this.workload = workload;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrent, true);
+
+        Tags tags = Tags.of("workload", workload.name().toLowerCase());
+        this.rejected = Counter.builder("bulkhead.rejected")
+                .description("Requests rejected because the bulkhead was full").tags(tags).register(meterRegistry);
+        this.waitTimer = Timer.builder("bulkhead.wait")
+                .description("Time spent waiting for a bulkhead slot").tags(tags).register(meterRegistry);
+        meterRegistry.gauge("bulkhead.active", tags, this, b -> b.maxConcurrent - b.permits.availablePermits());
+        meterRegistry.gauge("bulkhead.max", tags, this, b -> b.maxConcurrent);
+        meterRegistry.gauge("bulkhead.saturation", tags, this,
+                b -> (double) (b.maxConcurrent - b.permits.availablePermits()) / b.maxConcurrent);
+    }
+
+    public WorkloadClass getWorkload() {
+        return workload;
+    }
+
+    public boolean tryEnter() {
+        long start = System.nanoTime();
+        try {
+            boolean acquired = permits.tryAcquire() || permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                rejected.increment();
+            }
+            return acquired;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            return false;
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void exit() {
+        permits.release();
+    }
+}
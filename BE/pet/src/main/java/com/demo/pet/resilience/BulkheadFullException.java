@@ -0,0 +1,13 @@
+package com.demo.pet.resilience;
+
+import lombok.Getter;
+
+@Getter
+public class BulkheadFullException extends RuntimeException {
+    private final WorkloadClass workload;
+
+    public BulkheadFullException(WorkloadClass workload) {
+        super("Too many " + workload.name().toLowerCase() + " requests in progress, try again shortly");
+        this.workload = workload;
+    }
+}
@@ -0,0 +1,60 @@
+package com.demo.pet.resilience;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Connection side of {@link DatabaseCircuitBreaker}: refuses connections at once while the circuit
+ * is open, so a transaction never waits for the pool's connection timeout, and reports failed
+ * acquisitions (a transaction opened by a service fails here, before any repository call).
+ * The time spent waiting for the pool is recorded so repository calls can leave it out of their
+ * duration; only a failure counts, never a slow acquisition.
+ */
+public class CircuitBreakerDataSource extends DelegatingDataSource {
+    private static final int PROBE_TIMEOUT_SECONDS = 2;
+
+    private final DatabaseCircuitBreaker breaker;
+
+    public CircuitBreakerDataSource(DataSource target, DatabaseCircuitBreaker breaker) {
+        super(target);
+        this.breaker = breaker;
+        breaker.setHealthCheck(this::probe);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        breaker.checkNotOpen();
+        long start = System.nanoTime();
+        try {
+            return super.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            breaker.onResult(0, e);
+            throw e;
+        } finally {
+            breaker.recordConnectionWait(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        breaker.checkNotOpen();
+        long start = System.nanoTime();
+        try {
+            return super.getConnection(username, password);
+        } catch (SQLException | RuntimeException e) {
+            breaker.onResult(0, e);
+            throw e;
+        } finally {
+            breaker.recordConnectionWait(System.nanoTime() - start);
+        }
+    }
+
+    private boolean probe() throws SQLException {
+        try (Connection connection = obtainTargetDataSource().getConnection()) {
+            return connection.isValid(PROBE_TIMEOUT_SECONDS);
+        }
+    }
+}
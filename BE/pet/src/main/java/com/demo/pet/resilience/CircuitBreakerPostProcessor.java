@@ -0,0 +1,68 @@
+package com.demo.pet.resilience;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts {@link DatabaseCircuitBreaker} in front of every Spring Data repository (outermost advice,
+ * so it sees translated exceptions and the repository's own transaction) and every DataSource.
+ * Runs after {@link FaultInjectionDataSourcePostProcessor}, so injected faults trip the breaker.
+ */
+@Component
+public class CircuitBreakerPostProcessor implements BeanPostProcessor, Ordered {
+    private final ObjectProvider<DatabaseCircuitBreaker> breaker;
+
+    public CircuitBreakerPostProcessor(ObjectProvider<DatabaseCircuitBreaker> breaker) {
+        this.breaker = breaker;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CircuitBreakerDataSource)) {
+            return new CircuitBreakerDataSource(dataSource, breaker.getObject());
+        }
+        if (bean instanceof Repository<?, ?>) {
+            MethodInterceptor interceptor = invocation -> {
+                if (invocation.getMethod().getDeclaringClass() == Object.class) {
+                    return invocation.proceed();
+                }
+                DatabaseCircuitBreaker circuit = breaker.getObject();
+                circuit.acquirePermission();
+                long waitedBefore = circuit.connectionWaitNanos();
+                long start = System.nanoTime();
+                Throwable error = null;
+                try {
+                    return invocation.proceed();
+                } catch (Throwable e) {
+                    error = e;
+                    throw e;
+                } finally {
+                    // Chỉ tính thời gian thực thi, không tính lúc chờ connection từ pool
+                    long waited = circuit.connectionWaitNanos() - waitedBefore;
+                    circuit.onResult(System.nanoTime() - start - waited, error);
+                }
+            };
+            if (bean instanceof Advised advised && !advised.isFrozen()) {
+                advised.addAdvice(0, interceptor);
+                return bean;
+            }
+            ProxyFactory proxyFactory = new ProxyFactory(bean);
+            proxyFactory.addAdvice(interceptor);
+            return proxyFactory.getProxy();
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,310 @@
+package com.demo.pet.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Circuit breaker around database access. Repository calls report their outcome and duration
+ * over a sliding window of the last {@code window-size} calls; once enough of them failed with a
+ * connection-level error or ran slower than {@code slow-call-threshold}, the circuit opens and
+ * every repository call and connection request fails at once with
+ * {@link DatabaseUnavailableException} instead of waiting for the pool timeout.
+ * <p>
+ * While open, {@link #probe()} checks a raw connection every {@code probe-interval}; when the
+ * database answers the circuit goes half-open and lets {@code half-open-calls} real calls through
+ * to decide whether to close again; a trial call whose outcome is ignored (a busy pool, see below)
+ * hands its permit back so the trial is not stuck waiting for it. Business errors (constraint violations, not found, lock
+ * conflicts) never count as failures, and neither does a timeout waiting for a free pooled
+ * connection while the database itself is reachable (the bulkheads keep one workload from starving
+ * the other; a busy reporting pool is not a database outage). Time spent waiting for a pooled
+ * connection is not part of a call's duration either.
+ */
+@Component
+@Slf4j
+public class DatabaseCircuitBreaker {
+
+    private static final String POOL_TIMEOUT_MESSAGE = "Connection is not available";
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    @Getter
+    private final boolean enabled;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallThresholdNanos;
+    private final double slowCallRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+
+    // Sliding window of the last calls, guarded by this
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    @Getter
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    private int halfOpenRound;
+    // Lượt half-open mà thread hiện tại đang giữ permit, để trả lại nếu kết quả bị bỏ qua
+    private final ThreadLocal<Integer> heldPermit = new ThreadLocal<>();
+    private volatile Callable<Boolean> healthCheck;
+    // Thời gian chờ lấy connection từ pool của thread hiện tại (cộng dồn), để trừ khỏi thời gian call
+    private final ThreadLocal<long[]> connectionWaitNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final Counter rejected;
+    private final MeterRegistry meterRegistry;
+
+    public DatabaseCircuitBreaker(MeterRegistry meterRegistry,
+                                  @Value("${app.circuit-breaker.enabled:true}") boolean enabled,
+                                  @Value("${app.circuit-breaker.window-size:20}") int windowSize,
+                                  @Value("${app.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                                  @Value("${app.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                                  @Value("${app.circuit-breaker.slow-call-threshold:2s}") Duration slowCallThreshold,
+                                  @Value("${app.circuit-breaker.slow-call-rate-threshold:0.8}") double slowCallRateThreshold,
+                                  @Value("${app.circuit-breaker.open-duration:10s}") Duration openDuration,
+                                  @Value("${app.circuit-breaker.half-open-calls:3}") int halfOpenCalls) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThresholdNanos = slowCallThreshold.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+        this.rejected = Counter.builder("circuitbreaker.rejected")
+                .description("Database calls failed fast because the circuit was open")
+                .tag("name", "database").register(meterRegistry);
+        meterRegistry.gauge("circuitbreaker.state", Tags.of("name", "database"), this, b -> b.state.ordinal());
+    }
+
+    /**
+     * Called before a repository call; the caller must report the outcome with {@link #onResult}.
+     */
+    public void acquirePermission() {
+        if (!enabled) {
+            return;
+        }
+        State current = state;
+        if (current == State.CLOSED) {
+            return;
+        }
+        synchronized (this) {
+            if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+                halfOpenPermits--;
+                heldPermit.set(halfOpenRound);
+                return;
+            }
+            if (state == State.CLOSED) {
+                return;
+            }
+        }
+        rejected.increment();
+        throw new DatabaseUnavailableException(retryAfterSeconds());
+    }
+
+    /**
+     * Called before a connection is taken; unlike {@link #acquirePermission} it only refuses while
+     * fully open, since the repository call around it already holds a half-open permit.
+     */
+    public void checkNotOpen() {
+        if (enabled && state == State.OPEN) {
+            rejected.increment();
+            throw new DatabaseUnavailableException(retryAfterSeconds());
+        }
+    }
+
+    public void onResult(long elapsedNanos, Throwable error) {
+        if (!enabled) {
+            return;
+        }
+        Integer permit = heldPermit.get();
+        heldPermit.remove();
+        if (error instanceof DatabaseUnavailableException
+                || error instanceof CannotCreateTransactionException || isPoolExhausted(error)) {
+            // Refused by the breaker itself, a connection failure CircuitBreakerDataSource has
+            // already reported, or a busy pool, which says nothing about the database either way
+            if (permit != null) {
+                returnPermit(permit);
+            }
+            return;
+        }
+        // Business errors (not found, constraint violations) mean the database answered
+        boolean isFailure = error != null && isDatabaseFailure(error);
+        boolean isSlow = elapsedNanos >= slowCallThresholdNanos;
+
+        synchronized (this) {
+            if (state == State.HALF_OPEN) {
+                if (isFailure || isSlow) {
+                    transitionTo(State.OPEN);
+                } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                    transitionTo(State.CLOSED);
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                return;
+            }
+
+            if (recorded == failed.length) {
+                failures -= failed[next] ? 1 : 0;
+                slowCalls -= slow[next] ? 1 : 0;
+            } else {
+                recorded++;
+            }
+            failed[next] = isFailure;
+            slow[next] = isSlow;
+            failures += isFailure ? 1 : 0;
+            slowCalls += isSlow ? 1 : 0;
+            next = (next + 1) % failed.length;
+
+            if (recorded >= minimumCalls
+                    && ((double) failures / recorded >= failureRateThreshold
+                    || (double) slowCalls / recorded >= slowCallRateThreshold)) {
+                log.warn("Opening database circuit: {} failed and {} slow of the last {} calls",
+                        failures, slowCalls, recorded);
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    // Trial call không quyết định được gì: trả permit cho lượt half-open mà nó đã lấy
+    private synchronized void returnPermit(int round) {
+        if (state == State.HALF_OPEN && round == halfOpenRound) {
+            halfOpenPermits++;
+        }
+    }
+
+    /**
+     * Connection-level errors and timeouts, i.e. the database (or the way to it) is in trouble.
+     * A pool that timed out only because all its connections were busy is not.
+     */
+    public boolean isDatabaseFailure(Throwable error) {
+        if (isPoolExhausted(error)) {
+            return false;
+        }
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof DatabaseUnavailableException
+                    || t instanceof CannotCreateTransactionException
+                    || t instanceof DataAccessResourceFailureException
+                    || t instanceof TransientDataAccessResourceException
+                    || t instanceof QueryTimeoutException
+                    || t instanceof SQLTransientConnectionException
+                    || t instanceof SQLNonTransientConnectionException
+                    || t instanceof SQLTimeoutException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hikari's "Connection is not available, request timed out" without a cause: every connection
+     * was in use. When the pool could not open connections, the last connect error is the cause.
+     */
+    static boolean isPoolExhausted(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransientConnectionException && t.getCause() == null
+                    && String.valueOf(t.getMessage()).contains(POOL_TIMEOUT_MESSAGE)) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    void recordConnectionWait(long nanos) {
+        connectionWaitNanos.get()[0] += nanos;
+    }
+
+    long connectionWaitNanos() {
+        return connectionWaitNanos.get()[0];
+    }
+
+    void setHealthCheck(Callable<Boolean> healthCheck) {
+        this.healthCheck = healthCheck;
+    }
+
+    @Scheduled(fixedDelayString = "${app.circuit-breaker.probe-interval:2s}")
+    public void probe() {
+        if (!enabled || state != State.OPEN || System.nanoTime() - openedAt < openDurationNanos) {
+            return;
+        }
+        Callable<Boolean> check = healthCheck;
+        boolean healthy;
+        try {
+            healthy = check != null && check.call();
+        } catch (Exception e) {
+            healthy = false;
+        }
+        synchronized (this) {
+            if (state != State.OPEN) {
+                return;
+            }
+            if (healthy) {
+                log.info("Database answered the probe, letting {} trial calls through", halfOpenCalls);
+                transitionTo(State.HALF_OPEN);
+            } else {
+                // Still down: wait another open-duration before the next probe
+                openedAt = System.nanoTime();
+            }
+        }
+    }
+
+    private void transitionTo(State target) {
+        state = target;
+        switch (target) {
+            case OPEN -> openedAt = System.nanoTime();
+            case HALF_OPEN -> {
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+                halfOpenRound++;
+            }
+            case CLOSED -> {
+                log.info("Database circuit closed");
+                next = 0;
+                recorded = 0;
+                failures = 0;
+                slowCalls = 0;
+            }
+        }
+        Counter.builder("circuitbreaker.transitions")
+                .description("State changes of the circuit breaker")
+                .tag("name", "database").tag("to", target.name().toLowerCase())
+                .register(meterRegistry).increment();
+    }
+
+    private long retryAfterSeconds() {
+        long remainingNanos = openDurationNanos - (System.nanoTime() - openedAt);
+        return Math.max(1, (remainingNanos + 999_999_999L) / 1_000_000_000L);
+    }
+}
@@ -0,0 +1,13 @@
+package com.demo.pet.resilience;
+
+import lombok.Getter;
+
+@Getter
+public class DatabaseUnavailableException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public DatabaseUnavailableException(long retryAfterSeconds) {
+        super("The database is unavailable, try again shortly");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,31 @@
+package com.demo.pet.resilience;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionTimedOutException;
+
+/**
+ * Caps each new transaction's timeout at the time the current request has left. Hibernate turns
+ * the transaction timeout into a JDBC query timeout on every statement it runs, so a slow query is
+ * cancelled by the driver once the request's deadline passes instead of holding the connection.
+ * <p>
+ * Timeouts are whole seconds (JDBC's unit), rounded up. A transaction that would start after the
+ * deadline fails before it takes a connection.
+ */
+public class DeadlineAwareTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        if (!RequestDeadline.isSet()) {
+            return timeout;
+        }
+
+        long remainingNanos = RequestDeadline.remainingNanos();
+        if (remainingNanos <= 0) {
+            throw new TransactionTimedOutException("Request deadline passed before the transaction started");
+        }
+        int remainingSeconds = (int) Math.min(Integer.MAX_VALUE, (remainingNanos + 999_999_999L) / 1_000_000_000L);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remainingSeconds : Math.min(timeout, remainingSeconds);
+    }
+}
@@ -0,0 +1,112 @@
+package com.demo.pet.resilience;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the real (pooled) DataSource and routes connection requests and statement executions
+ * through {@link FaultInjector}. Connections and statements are JDK proxies, so everything other
+ * than acquire and execute goes straight to the driver.
+ * <p>
+ * The injector is looked up on first use: the wrapper is created by a BeanPostProcessor, and
+ * pulling the injector (and the meter registry behind it) in that early would keep them from
+ * being post-processed themselves.
+ */
+public class FaultInjectingDataSource extends DelegatingDataSource {
+    private final Supplier<FaultInjector> injector;
+
+    public FaultInjectingDataSource(DataSource target, Supplier<FaultInjector> injector) {
+        super(target);
+        this.injector = injector;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        injector.get().beforeAcquire();
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        injector.get().beforeAcquire();
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = FaultInjectingDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> wrapStatement(proxy, (Statement) result, Statement.class, null);
+                case "prepareStatement" ->
+                        wrapStatement(proxy, (Statement) result, PreparedStatement.class, (String) args[0]);
+                case "prepareCall" -> wrapStatement(proxy, (Statement) result, CallableStatement.class, (String) args[0]);
+                default -> result;
+            };
+        }
+
+        private Object wrapStatement(Object connection, Statement statement, Class<?> type, String sql) {
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(connection, statement, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Object connection;
+        private final Statement target;
+        private final String preparedSql;
+        private int queryTimeout;
+
+        StatementHandler(Object connection, Statement target, String preparedSql) {
+            this.connection = connection;
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("getConnection")) {
+                // Callers compare this against the connection they hold, which is the proxy
+                return connection;
+            }
+            if (name.equals("setQueryTimeout")) {
+                queryTimeout = (Integer) args[0];
+            } else if (name.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                injector.get().beforeStatement(sql, queryTimeout);
+            }
+            return FaultInjectingDataSource.invoke(target, method, args);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.demo.pet.resilience;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts every DataSource bean behind a {@link FaultInjectingDataSource} when fault injection is
+ * enabled. Spring Boot unwraps delegating DataSources, so Hikari pool metrics keep working.
+ */
+@Component
+@ConditionalOnProperty(name = "app.faults.enabled", havingValue = "true")
+public class FaultInjectionDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+    private final ObjectProvider<FaultInjector> injector;
+
+    public FaultInjectionDataSourcePostProcessor(ObjectProvider<FaultInjector> injector) {
+        this.injector = injector;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof FaultInjectingDataSource)) {
+            return new FaultInjectingDataSource(dataSource, injector::getObject);
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        // Innermost wrapper: faults look like they come from the pool itself
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
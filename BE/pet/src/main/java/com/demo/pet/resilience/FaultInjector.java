@@ -0,0 +1,120 @@
+package com.demo.pet.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the active {@link FaultProfile} and applies it on the calling thread, so the delay is
+ * spent where the real database wait would be: a Tomcat thread blocked inside a repository call.
+ * <p>
+ * Statement delays run while the pooled connection is held, which is what drains the Hikari pool
+ * under load. Acquire delays run before the pool is asked, so they only add latency.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.faults.enabled", havingValue = "true")
+public class FaultInjector {
+    private final AtomicReference<FaultProfile> profile = new AtomicReference<>(FaultProfile.NONE);
+    private final Counter statementDelays;
+    private final Counter statementFailures;
+    private final Counter statementTimeouts;
+    private final Counter acquireDelays;
+    private final Counter acquireFailures;
+
+    public FaultInjector(MeterRegistry meterRegistry) {
+        this.statementDelays = counter(meterRegistry, "statement-delay");
+        this.statementFailures = counter(meterRegistry, "statement-failure");
+        this.statementTimeouts = counter(meterRegistry, "statement-timeout");
+        this.acquireDelays = counter(meterRegistry, "acquire-delay");
+        this.acquireFailures = counter(meterRegistry, "acquire-failure");
+    }
+
+    public FaultProfile getProfile() {
+        return profile.get();
+    }
+
+    public FaultProfile setProfile(FaultProfile next) {
+        profile.set(next);
+        log.warn("Database fault injection set to {}", next);
+        return next;
+    }
+
+    public FaultProfile reset() {
+        profile.set(FaultProfile.NONE);
+        log.info("Database fault injection turned off");
+        return FaultProfile.NONE;
+    }
+
+    void beforeAcquire() throws SQLException {
+        FaultProfile current = profile.get();
+        if (!current.isActive()) {
+            return;
+        }
+        if (current.acquireDelayMs() > 0) {
+            acquireDelays.increment();
+            sleep(current.acquireDelayMs());
+        }
+        if (roll(current.acquireFailureRate())) {
+            acquireFailures.increment();
+            throw new SQLTransientConnectionException("Injected fault: connection is not available", "08001");
+        }
+    }
+
+    /**
+     * @param queryTimeoutSeconds timeout set on the statement, 0 if none; a delay that would run
+     *                            past it ends in {@link SQLTimeoutException} like a real driver
+     */
+    void beforeStatement(String sql, int queryTimeoutSeconds) throws SQLException {
+        FaultProfile current = profile.get();
+        if (!current.isActive() || !current.matches(sql)) {
+            return;
+        }
+        long delay = current.statementLatencyMs();
+        if (current.latencyJitterMs() > 0) {
+            delay += ThreadLocalRandom.current().nextLong(current.latencyJitterMs());
+        }
+        if (delay > 0) {
+            long timeoutMs = queryTimeoutSeconds * 1000L;
+            if (timeoutMs > 0 && delay >= timeoutMs) {
+                sleep(timeoutMs);
+                statementTimeouts.increment();
+                throw new SQLTimeoutException("Injected fault: statement exceeded its query timeout");
+            }
+            statementDelays.increment();
+            sleep(delay);
+        }
+        if (roll(current.statementFailureRate())) {
+            statementFailures.increment();
+            // 08S01 is what MySQL Connector/J reports for a dropped link
+            throw new SQLTransientConnectionException("Injected fault: communications link failure", "08S01");
+        }
+    }
+
+    private static boolean roll(double rate) {
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private static void sleep(long millis) throws SQLException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted during injected delay", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("faults.injected")
+                .description("Database faults injected by the fault-injecting DataSource")
+                .tag("type", type).register(meterRegistry);
+    }
+}
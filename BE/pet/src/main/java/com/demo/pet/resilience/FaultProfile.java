@@ -0,0 +1,46 @@
+package com.demo.pet.resilience;
+
+import java.util.regex.Pattern;
+
+/**
+ * Immutable set of faults applied by {@link FaultInjector}. A profile with all delays at 0 and
+ * both rates at 0 is a no-op; {@link #NONE} is the state after startup and after a reset.
+ *
+ * @param statementLatencyMs   fixed delay before every matching statement runs
+ * @param latencyJitterMs      extra random delay in [0, jitter) added to the statement delay
+ * @param statementFailureRate share (0..1) of matching statements that fail with a connection error
+ * @param acquireDelayMs       delay before a connection is handed out
+ * @param acquireFailureRate   share (0..1) of connection requests that fail
+ * @param sqlPattern           statements the statement faults apply to; null means every statement
+ */
+public record FaultProfile(long statementLatencyMs,
+                           long latencyJitterMs,
+                           double statementFailureRate,
+                           long acquireDelayMs,
+                           double acquireFailureRate,
+                           Pattern sqlPattern) {
+
+    public static final FaultProfile NONE = new FaultProfile(0, 0, 0, 0, 0, null);
+
+    public FaultProfile {
+        if (statementLatencyMs < 0 || latencyJitterMs < 0 || acquireDelayMs < 0) {
+            throw new IllegalArgumentException("Fault delays must not be negative");
+        }
+        if (!isRate(statementFailureRate) || !isRate(acquireFailureRate)) {
+            throw new IllegalArgumentException("Fault rates must be between 0 and 1");
+        }
+    }
+
+    public boolean isActive() {
+        return statementLatencyMs > 0 || latencyJitterMs > 0 || statementFailureRate > 0
+                || acquireDelayMs > 0 || acquireFailureRate > 0;
+    }
+
+    public boolean matches(String sql) {
+        return sqlPattern == null || (sql != null && sqlPattern.matcher(sql).find());
+    }
+
+    private static boolean isRate(double rate) {
+        return rate >= 0 && rate <= 1;
+    }
+}
@@ -0,0 +1,39 @@
+package com.demo.pet.resilience;
+
+import java.time.Duration;
+
+/**
+ * Deadline of the request running on the current thread, set by {@link RequestDeadlineFilter}.
+ * Read by {@link DeadlineAwareTransactionManager} so every transaction, and through it every
+ * JDBC statement, gets only the time the request has left.
+ */
+public final class RequestDeadline {
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static void start(Duration budget) {
+        DEADLINE_NANOS.set(System.nanoTime() + budget.toNanos());
+    }
+
+    public static boolean isSet() {
+        return DEADLINE_NANOS.get() != null;
+    }
+
+    /**
+     * @return time left in nanoseconds, {@link Long#MAX_VALUE} when the thread has no deadline
+     */
+    public static long remainingNanos() {
+        Long deadline = DEADLINE_NANOS.get();
+        return deadline == null ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    public static boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    public static void clear() {
+        DEADLINE_NANOS.remove();
+    }
+}
@@ -0,0 +1,91 @@
+package com.demo.pet.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gives every API request a deadline ({@link RequestDeadline}) that the transaction manager turns
+ * into transaction and JDBC query timeouts. Routes are listed as {@code "METHOD /ant/pattern=5s"}
+ * (method optional, first match wins); anything else gets the default budget.
+ * <p>
+ * Requests that ran out of time are counted in {@code deadline.exceeded} per route.
+ */
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Duration defaultBudget;
+    private final List<Rule> rules = new ArrayList<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestDeadlineFilter(Duration defaultBudget, List<String> routeBudgets, MeterRegistry meterRegistry) {
+        this.defaultBudget = defaultBudget;
+        this.meterRegistry = meterRegistry;
+        for (String entry : routeBudgets) {
+            int eq = entry.lastIndexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected 'ROUTE=DURATION' in app.deadline.routes: " + entry);
+            }
+            String route = entry.substring(0, eq).trim();
+            Duration budget = DurationStyle.detectAndParse(entry.substring(eq + 1).trim());
+            int space = route.indexOf(' ');
+            rules.add(space < 0
+                    ? new Rule(null, route, budget)
+                    : new Rule(route.substring(0, space), route.substring(space + 1).trim(), budget));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getServletPath().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Rule rule = match(request);
+        RequestDeadline.start(rule != null ? rule.budget : defaultBudget);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (RequestDeadline.isExpired() || response.getStatus() == HttpStatus.GATEWAY_TIMEOUT.value()) {
+                String route = rule != null
+                        ? (rule.method != null ? rule.method + " " : "") + rule.pattern
+                        : request.getMethod() + " " + ApiRateLimitFilter.routeOf(request.getServletPath());
+                Counter.builder("deadline.exceeded")
+                        .description("Requests that ran past their deadline")
+                        .tag("route", route)
+                        .register(meterRegistry)
+                        .increment();
+            }
+            RequestDeadline.clear();
+        }
+    }
+
+    private Rule match(HttpServletRequest request) {
+        String path = request.getServletPath();
+        for (Rule rule : rules) {
+            if ((rule.method == null || rule.method.equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(rule.pattern, path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private record Rule(String method, String pattern, Duration budget) {
+    }
+}
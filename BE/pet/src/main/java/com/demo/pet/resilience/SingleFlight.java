@@ -0,0 +1,140 @@
+package com.demo.pet.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads: the first caller for a key runs the load, callers that
+ * arrive while it is running wait for the same result, and callers within {@code reuseWindow}
+ * after it finished get that result without a query. Failures are never reused.
+ * <p>
+ * Results are shared between callers, so loaders must return values nobody mutates (immutable
+ * lists of DTOs). Writers call {@link #invalidate} or {@link #invalidateAll}; inside a
+ * transaction the entries are dropped again after commit, so a read that started before the
+ * commit cannot be reused afterwards.
+ */
+public class SingleFlight {
+    private final long reuseWindowNanos;
+    private final int maxEntries;
+    private final ConcurrentHashMap<Object, Call> calls = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter joined;
+    private final Counter reused;
+
+    public SingleFlight(String name, long reuseWindowNanos, int maxEntries, MeterRegistry meterRegistry) {
+        this.reuseWindowNanos = reuseWindowNanos;
+        this.maxEntries = maxEntries;
+        this.leaders = counter(meterRegistry, name, "leader");
+        this.joined = counter(meterRegistry, name, "joined");
+        this.reused = counter(meterRegistry, name, "reused");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> loader) {
+        long now = System.nanoTime();
+        Call call = calls.get(key);
+        if (call != null) {
+            if (!call.future.isDone()) {
+                joined.increment();
+                return (T) await(call);
+            }
+            if (!call.future.isCompletedExceptionally() && now - call.completedAt < reuseWindowNanos) {
+                reused.increment();
+                return (T) call.future.join();
+            }
+        }
+
+        Call mine = new Call();
+        Call winner = calls.compute(key, (k, current) ->
+                current != null && current != call && isUsable(current, now) ? current : mine);
+        if (winner != mine) {
+            // Someone else started (or finished) the same load in the meantime
+            if (winner.future.isDone()) {
+                reused.increment();
+            } else {
+                joined.increment();
+            }
+            return (T) await(winner);
+        }
+
+        leaders.increment();
+        if (calls.size() > maxEntries) {
+            calls.entrySet().removeIf(e -> e.getValue().future.isDone()
+                    && now - e.getValue().completedAt >= reuseWindowNanos);
+        }
+        try {
+            T result = loader.get();
+            mine.completedAt = System.nanoTime();
+            mine.future.complete(result);
+            if (reuseWindowNanos <= 0) {
+                calls.remove(key, mine);
+            }
+            return result;
+        } catch (RuntimeException | Error e) {
+            calls.remove(key, mine);
+            mine.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidate(Object key) {
+        calls.remove(key);
+        afterCommit(() -> calls.remove(key));
+    }
+
+    public void invalidateAll() {
+        calls.clear();
+        afterCommit(calls::clear);
+    }
+
+    private boolean isUsable(Call call, long now) {
+        if (!call.future.isDone()) {
+            return true;
+        }
+        return !call.future.isCompletedExceptionally() && now - call.completedAt < reuseWindowNanos;
+    }
+
+    private static Object await(Call call) {
+        try {
+            return call.future.join();
+        } catch (CompletionException e) {
+            // Rethrow what the leader got, so followers see the same error (e.g. 404)
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder("singleflight.calls")
+                .description("Reads by outcome: leader ran the query, joined/reused were collapsed into it")
+                .tag("name", name).tag("outcome", outcome).register(meterRegistry);
+    }
+
+    private static final class Call {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        volatile long completedAt;
+    }
+}
@@ -0,0 +1,32 @@
+package com.demo.pet.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named {@link SingleFlight}s shared by the services. All of them use the same reuse window
+ * ({@code app.single-flight.reuse-window}); 0 collapses only reads that overlap in time.
+ */
+@Component
+public class SingleFlightRegistry {
+    private final MeterRegistry meterRegistry;
+    private final long reuseWindowNanos;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, SingleFlight> flights = new ConcurrentHashMap<>();
+
+    public SingleFlightRegistry(MeterRegistry meterRegistry,
+                                @Value("${app.single-flight.reuse-window:250ms}") Duration reuseWindow,
+                                @Value("${app.single-flight.max-entries:10000}") int maxEntries) {
+        this.meterRegistry = meterRegistry;
+        this.reuseWindowNanos = reuseWindow.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    public SingleFlight forName(String name) {
+        return flights.computeIfAbsent(name, n -> new SingleFlight(n, reuseWindowNanos, maxEntries, meterRegistry));
+    }
+}
@@ -0,0 +1,80 @@
+package com.demo.pet.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Last good result of a few read paths (service catalog, cage board, the caller's own pets), kept
+ * for degraded mode. A read always goes to the database first; only when it fails because the
+ * database is unreachable (see {@link DatabaseCircuitBreaker#isDatabaseFailure}) is the last result
+ * returned instead, at most {@code max-staleness} old, with {@code X-Data-Stale: true} and
+ * {@code Age} on the response.
+ * <p>
+ * Values are shared between requests, so loaders must return values nobody mutates.
+ */
+@Component
+public class StaleReadCache {
+    public static final String STALE_HEADER = "X-Data-Stale";
+
+    private final DatabaseCircuitBreaker breaker;
+    private final long maxStalenessNanos;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter served;
+
+    public StaleReadCache(DatabaseCircuitBreaker breaker,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.circuit-breaker.stale-reads.max-staleness:1h}") Duration maxStaleness,
+                          @Value("${app.circuit-breaker.stale-reads.max-entries:5000}") int maxEntries) {
+        this.breaker = breaker;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.maxEntries = maxEntries;
+        this.served = Counter.builder("stale.reads.served")
+                .description("Reads answered from the last good result while the database was unavailable")
+                .register(meterRegistry);
+        meterRegistry.gauge("stale.reads.entries", entries, ConcurrentHashMap::size);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T read(String key, Supplier<T> loader) {
+        T value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            Entry entry = entries.get(key);
+            long age = entry == null ? 0 : System.nanoTime() - entry.loadedAt;
+            if (entry == null || age > maxStalenessNanos || !breaker.isDatabaseFailure(e)) {
+                throw e;
+            }
+            served.increment();
+            markStale(Duration.ofNanos(age));
+            return (T) entry.value;
+        }
+
+        if (entries.size() < maxEntries || entries.containsKey(key)) {
+            entries.put(key, new Entry(value, System.nanoTime()));
+        }
+        return value;
+    }
+
+    private static void markStale(Duration age) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && attributes.getResponse() instanceof HttpServletResponse response) {
+            response.setHeader(STALE_HEADER, "true");
+            response.setHeader(HttpHeaders.AGE, String.valueOf(age.toSeconds()));
+        }
+    }
+
+    private record Entry(Object value, long loadedAt) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.demo.pet.resilience;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns a controller, or a single handler method, to a {@link WorkloadClass}. Handlers without
+ * it are {@link WorkloadClass#TRANSACTIONAL}; a method-level annotation wins over the class.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Workload {
+    WorkloadClass value();
+}
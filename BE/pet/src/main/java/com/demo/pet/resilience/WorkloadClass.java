@@ -0,0 +1,10 @@
+package com.demo.pet.resilience;
+
+/**
+ * Kinds of traffic that get their own bulkhead and connection pool, so heavy admin lists cannot
+ * starve owner bookings.
+ */
+public enum WorkloadClass {
+    TRANSACTIONAL,
+    REPORTING
+}
@@ -0,0 +1,25 @@
+package com.demo.pet.resilience;
+
+/**
+ * Workload class of the request running on the current thread; read by
+ * {@link WorkloadRoutingDataSource} when a connection is needed.
+ */
+public final class WorkloadContext {
+    private static final ThreadLocal<WorkloadClass> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static WorkloadClass current() {
+        WorkloadClass workload = CURRENT.get();
+        return workload == null ? WorkloadClass.TRANSACTIONAL : workload;
+    }
+
+    public static void set(WorkloadClass workload) {
+        CURRENT.set(workload);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
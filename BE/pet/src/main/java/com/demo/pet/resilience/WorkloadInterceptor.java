@@ -0,0 +1,65 @@
+package com.demo.pet.resilience;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.Map;
+
+/**
+ * Puts each controller call into the bulkhead of its {@link WorkloadClass} and marks the thread
+ * so {@link WorkloadRoutingDataSource} picks the matching pool. Runs after Spring Security, so
+ * rejected-by-auth requests never take a slot.
+ */
+public class WorkloadInterceptor implements AsyncHandlerInterceptor {
+    private static final String BULKHEAD_ATTRIBUTE = WorkloadInterceptor.class.getName() + ".bulkhead";
+
+    private final Map<WorkloadClass, Bulkhead> bulkheads;
+
+    public WorkloadInterceptor(Map<WorkloadClass, Bulkhead> bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Bulkhead bulkhead = bulkheads.get(workloadOf(handlerMethod));
+        if (!bulkhead.tryEnter()) {
+            throw new BulkheadFullException(bulkhead.getWorkload());
+        }
+        request.setAttribute(BULKHEAD_ATTRIBUTE, bulkhead);
+        WorkloadContext.set(bulkhead.getWorkload());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        Object bulkhead = request.getAttribute(BULKHEAD_ATTRIBUTE);
+        if (bulkhead != null) {
+            request.removeAttribute(BULKHEAD_ATTRIBUTE);
+            ((Bulkhead) bulkhead).exit();
+        }
+        WorkloadContext.clear();
+    }
+
+    static WorkloadClass workloadOf(HandlerMethod handlerMethod) {
+        Workload workload = handlerMethod.getMethodAnnotation(Workload.class);
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), Workload.class);
+        }
+        return workload == null ? WorkloadClass.TRANSACTIONAL : workload.value();
+    }
+}
@@ -1,6 +1,7 @@
 package com.demo.pet.services;
 
 import com.demo.pet.dtos.CageDTO;
+import com.demo.pet.dtos.subDTO.CageTransferDTO;
 
 import java.util.List;
 
@@ -15,6 +16,8 @@ public interface CageService {
 
     CageDTO deleteCage(Long id);
 
+    List<CageDTO> transferPet(CageTransferDTO dto);
+
     CageDTO getCageByPetId(Long petId);
 
     List<CageDTO> getCagesByStatus(String status);
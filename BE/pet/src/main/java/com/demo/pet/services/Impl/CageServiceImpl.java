@@ -1,10 +1,16 @@
 package com.demo.pet.services.Impl;
 
 import com.demo.pet.dtos.CageDTO;
+import com.demo.pet.dtos.subDTO.CageTransferDTO;
+import com.demo.pet.events.DomainEventPublisher;
+import com.demo.pet.events.DomainEventType;
 import com.demo.pet.models.Cage;
 import com.demo.pet.models.Pet;
 import com.demo.pet.repositories.CageRepo;
 import com.demo.pet.repositories.PetRepo;
+import com.demo.pet.resilience.SingleFlight;
+import com.demo.pet.resilience.SingleFlightRegistry;
+import com.demo.pet.resilience.StaleReadCache;
 import com.demo.pet.services.CageService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -13,19 +19,32 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class CageServiceImpl implements CageService {
     private final CageRepo cageRepo;
     private final PetRepo petRepo;
+    private final DomainEventPublisher eventPublisher;
+    private final SingleFlightRegistry singleFlights;
+    private final StaleReadCache staleReads;
 
+    // Bảng cage được cả quầy check-in đọc cùng lúc, gộp các lần đọc trùng nhau
+    private SingleFlight cageReads() {
+        return singleFlights.forName("cages");
+    }
+
+    // Không mở transaction ở service: request đang chờ single-flight không giữ connection,
+    // findAll tự chạy trong transaction read-only của repository
     @Override
     public List<CageDTO> getAllCages() {
-        return cageRepo.findAll().stream().map(CageDTO::fromEntity).toList();
+        return staleReads.read("cages:all", () -> cageReads().execute("all",
+                () -> cageRepo.findAll().stream().map(CageDTO::fromEntity).toList()));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CageDTO getCageById(Long id) {
         return CageDTO.fromEntity(
                 cageRepo.findById(id)
@@ -48,15 +67,15 @@ public class CageServiceImpl implements CageService {
         cage.setStartDate(dto.getStartDate() != null ? dto.getStartDate() : null);
         cage.setEndDate(dto.getEndDate() != null ? dto.getEndDate() : null);
 
-        if (dto.getPetId() != null) {
-            Pet pet = petRepo.findById(dto.getPetId())
-                    .orElseThrow(() -> new EntityNotFoundException("Pet not found with id: " + dto.getPetId()));
-            cage.setPet(pet);
-        } else {
-            cage.setPet(null);
-        }
+        // Chỉ cần khóa ngoại: id sai sẽ bị FK chặn khi INSERT (404)
+        cage.setPet(dto.getPetId() != null ? petRepo.getReferenceById(dto.getPetId()) : null);
 
-        return CageDTO.fromEntity(cageRepo.save(cage));
+        CageDTO created = CageDTO.fromEntity(cageRepo.save(cage));
+        cageReads().invalidateAll();
+        if (created.getPetId() != null) {
+            eventPublisher.publish(DomainEventType.CAGE_ASSIGNMENT_CHANGED, created.getId(), created);
+        }
+        return created;
     }
 
     @Override
@@ -64,6 +83,7 @@ public class CageServiceImpl implements CageService {
     public CageDTO updateCage(Long id, CageDTO dto) {
         Cage cage = cageRepo.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Cage not found with id: " + id));
+        Long previousPetId = cage.getPet() != null ? cage.getPet().getId() : null;
 
         if (dto.getType() != null && !dto.getType().isBlank()) cage.setType(dto.getType());
         if (dto.getSize() != null && !dto.getSize().isBlank()) cage.setSize(dto.getSize());
@@ -79,7 +99,61 @@ public class CageServiceImpl implements CageService {
             cage.setPet(null);
         }
 
-        return CageDTO.fromEntity(cageRepo.save(cage));
+        CageDTO updated = CageDTO.fromEntity(cageRepo.save(cage));
+        cageReads().invalidateAll();
+        if (!Objects.equals(previousPetId, updated.getPetId())) {
+            eventPublisher.publish(DomainEventType.CAGE_ASSIGNMENT_CHANGED, updated.getId(), updated);
+        }
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public List<CageDTO> transferPet(CageTransferDTO dto) {
+        Long fromId = dto.getFromCageId();
+        Long toId = dto.getToCageId();
+        if (fromId == null || toId == null)
+            throw new IllegalArgumentException("Source and target cage ids are required");
+        if (fromId.equals(toId))
+            throw new IllegalArgumentException("Source and target cage must be different");
+
+        // Luôn khóa chuồng có id nhỏ trước: hai lần chuyển ngược chiều nhau không thể deadlock
+        Cage first = lockCage(Math.min(fromId, toId));
+        Cage second = lockCage(Math.max(fromId, toId));
+        Cage source = first.getId().equals(fromId) ? first : second;
+        Cage target = source == first ? second : first;
+
+        Pet pet = source.getPet();
+        if (pet == null)
+            throw new IllegalArgumentException("Cage " + fromId + " has no pet to transfer");
+        if (dto.getPetId() != null && !dto.getPetId().equals(pet.getId()))
+            throw new IllegalArgumentException("Pet " + dto.getPetId() + " is no longer in cage " + fromId);
+        if (target.getPet() != null || target.getStatus() != Cage.Status.AVAILABLE)
+            throw new IllegalArgumentException("Cage " + toId + " is not available");
+
+        LocalDate startDate = source.getStartDate();
+        LocalDate endDate = source.getEndDate();
+        source.setPet(null);
+        source.setStatus(Cage.Status.CLEANING);
+        source.setStartDate(null);
+        source.setEndDate(null);
+        // Ghi chuồng nguồn trước để pet_id (unique) được giải phóng rồi mới gán sang chuồng đích
+        CageDTO from = CageDTO.fromEntity(cageRepo.saveAndFlush(source));
+
+        target.setPet(pet);
+        target.setStatus(Cage.Status.OCCUPIED);
+        target.setStartDate(startDate);
+        target.setEndDate(endDate);
+        CageDTO to = CageDTO.fromEntity(cageRepo.save(target));
+        cageReads().invalidateAll();
+        eventPublisher.publish(DomainEventType.CAGE_ASSIGNMENT_CHANGED, from.getId(), from);
+        eventPublisher.publish(DomainEventType.CAGE_ASSIGNMENT_CHANGED, to.getId(), to);
+        return List.of(from, to);
+    }
+
+    private Cage lockCage(Long id) {
+        return cageRepo.findByIdForUpdate(id)
+                .orElseThrow(() -> new EntityNotFoundException("Cage not found with id: " + id));
     }
 
     @Override
@@ -94,10 +168,12 @@ public class CageServiceImpl implements CageService {
         }
 
         cageRepo.delete(cage);
+        cageReads().invalidateAll();
         return CageDTO.fromEntity(cage);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CageDTO getCageByPetId(Long petId) {
         return CageDTO.fromEntity(cageRepo.findByPetId(petId)
                         .orElseThrow(() -> new EntityNotFoundException("Cage not found for pet id: " + petId)));
@@ -117,14 +193,13 @@ public class CageServiceImpl implements CageService {
             throw new IllegalArgumentException("Invalid cage status: " + status);
         }
 
-        // Filter cages by status
-        return cageRepo.findAll().stream()
-                .filter(cage -> cage.getStatus() == cageStatus)
+        return staleReads.read("cages:" + cageStatus, () -> cageReads().execute(cageStatus, () -> cageRepo.findByStatus(cageStatus).stream()
                 .map(CageDTO::fromEntity)
-                .toList();
+                .toList()));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CageDTO> getCagesByTypeAndSize(String type, String size) {
         if (type == null || type.isBlank()) {
             throw new IllegalArgumentException("Cage type cannot be null or blank");
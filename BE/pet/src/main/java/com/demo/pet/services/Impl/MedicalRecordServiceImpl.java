@@ -1,6 +1,8 @@
 package com.demo.pet.services.Impl;
 
 import com.demo.pet.dtos.MedicalRecordDTO;
+import com.demo.pet.events.DomainEventPublisher;
+import com.demo.pet.events.DomainEventType;
 import com.demo.pet.models.MedicalRecord;
 import com.demo.pet.models.Pet;
 import com.demo.pet.models.User;
@@ -22,26 +24,31 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
     private final MedicalRecordRepo recordRepo;
     private final PetRepo petRepo;
     private final UserRepo userRepo;
+    private final DomainEventPublisher eventPublisher;
 
     @Override
+    @Transactional(readOnly = true)
     public List<MedicalRecordDTO> getAllRecords() {
         return recordRepo.findAll().stream().map(MedicalRecordDTO::fromEntity).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public MedicalRecordDTO getRecordById(Long id) {
         return MedicalRecordDTO.fromEntity(recordRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Medical record not found with id: " + id)));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MedicalRecordDTO> getRecordsByPetId(Long petId) {
-        return recordRepo.findByPetId(petId).stream().map(MedicalRecordDTO::fromEntity).toList();
+        return recordRepo.findDetailsByPetId(petId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MedicalRecordDTO> getRecordsByUserId(Long userId) {
-        return recordRepo.findByUserId(userId).stream().map(MedicalRecordDTO::fromEntity).toList();
+        return recordRepo.findDetailsByUserId(userId);
     }
 
     @Override
@@ -54,14 +61,13 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
         record.setNotes(dto.getNotes());
         record.setNextMeetingDate(dto.getNextMeetingDate());
 
-        Pet pet = petRepo.findById(dto.getPetId())
-                .orElseThrow(() -> new RuntimeException("Pet not found with id: " + dto.getPetId()));
-        User user = userRepo.findById(dto.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + dto.getUserId()));
-        record.setPet(pet);
-        record.setUser(user);
+        // Chỉ cần khóa ngoại: id sai sẽ bị FK chặn khi INSERT (404)
+        record.setPet(petRepo.getReferenceById(dto.getPetId()));
+        record.setUser(userRepo.getReferenceById(dto.getUserId()));
 
-        return MedicalRecordDTO.fromEntity(recordRepo.save(record));
+        MedicalRecordDTO created = MedicalRecordDTO.fromEntity(recordRepo.save(record));
+        eventPublisher.publish(DomainEventType.MEDICAL_RECORD_CREATED, created.getId(), created);
+        return created;
     }
 
     @Override
@@ -111,6 +117,7 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MedicalRecordDTO> getMyRecords() {
         // Get authenticated user's email
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -122,8 +129,6 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
                 .getId();
 
         // Fetch medical records for the user
-        return recordRepo.findByUserId(userId).stream()
-                .map(MedicalRecordDTO::fromEntity)
-                .toList();
+        return recordRepo.findDetailsByUserId(userId);
     }
 }
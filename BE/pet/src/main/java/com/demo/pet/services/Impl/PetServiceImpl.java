@@ -4,8 +4,14 @@ package com.demo.pet.services.Impl;
 import com.demo.pet.dtos.PetDTO;
 import com.demo.pet.models.Pet;
 import com.demo.pet.models.User;
+import com.demo.pet.repositories.MedicalRecordRepo;
 import com.demo.pet.repositories.PetRepo;
+import com.demo.pet.repositories.ServiceBookingArchiveRepo;
+import com.demo.pet.repositories.ServiceBookingRepo;
 import com.demo.pet.repositories.UserRepo;
+import com.demo.pet.resilience.SingleFlight;
+import com.demo.pet.resilience.SingleFlightRegistry;
+import com.demo.pet.resilience.StaleReadCache;
 import com.demo.pet.services.PetService;
 import lombok.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,19 +28,32 @@ import java.util.stream.Collectors;
 public class PetServiceImpl implements PetService {
     private final PetRepo petRepo;
     private final UserRepo userRepo;
+    private final MedicalRecordRepo medicalRecordRepo;
+    private final ServiceBookingRepo serviceBookingRepo;
+    private final ServiceBookingArchiveRepo bookingArchiveRepo;
+    private final SingleFlightRegistry singleFlights;
+    private final StaleReadCache staleReads;
+
+    private SingleFlight petReads() {
+        return singleFlights.forName("pets");
+    }
 
     @Override
+    @Transactional(readOnly = true)
     public List<PetDTO> getAllPets() {
         return petRepo.findAll().stream().map(PetDTO::fromEntity).toList();
     }
 
+    // Không @Transactional: transaction read-only nằm trong findById, chỉ leader của single flight lấy
+    // connection; các request đang chờ kết quả không giữ connection. PetDTO chỉ đọc id của user (khóa ngoại)
     @Override
     public PetDTO getPetById(Long id) {
-        return PetDTO.fromEntity(petRepo.findById(id)
-                .orElseThrow(() -> new RuntimeException("Pet not found with id: " + id)));
+        return petReads().execute(id, () -> PetDTO.fromEntity(petRepo.findById(id)
+                .orElseThrow(() -> new RuntimeException("Pet not found with id: " + id))));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<PetDTO> getPetsByUserId(Long userId) {
         return petRepo.findByUserId(userId).stream().map(PetDTO::fromEntity).toList();
     }
@@ -50,9 +69,8 @@ public class PetServiceImpl implements PetService {
         pet.setSpecies(petDTO.getSpecies());
         pet.setColor(petDTO.getColor());
         pet.setHealthInfo(petDTO.getHealthInfo());
-        User user = userRepo.findById(petDTO.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + petDTO.getUserId()));
-        pet.setUser(user);
+        // Chỉ cần khóa ngoại: id sai sẽ bị FK chặn khi INSERT (404)
+        pet.setUser(userRepo.getReferenceById(petDTO.getUserId()));
 
         return PetDTO.fromEntity(petRepo.save(pet));
     }
@@ -85,7 +103,9 @@ public class PetServiceImpl implements PetService {
             throw new RuntimeException("User ID cannot be null");
         }
 
-        return PetDTO.fromEntity(petRepo.save(pet));
+        PetDTO updated = PetDTO.fromEntity(petRepo.save(pet));
+        petReads().invalidate(id);
+        return updated;
     }
 
     @Override
@@ -94,7 +114,7 @@ public class PetServiceImpl implements PetService {
         Pet pet = petRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Pet not found with id: " + id));
 
-        // Check if the pet has any associated cage or medical records
+        // Check if the pet has any associated cage, medical records or bookings
         User user = pet.getUser();
 
         // Check for associated cage
@@ -103,28 +123,38 @@ public class PetServiceImpl implements PetService {
         }
 
         // Check for associated medical records
-        if (pet.getMedicalRecordList() != null && !pet.getMedicalRecordList().isEmpty()) {
+        if (medicalRecordRepo.existsByPetId(id)) {
             throw new RuntimeException("Cannot delete pet with associated medical records.");
         }
 
+        // Lịch hẹn đã archive vẫn trỏ tới pet_id, xóa pet sẽ làm mất tên pet trong lịch sử
+        if (serviceBookingRepo.existsByPetId(id) || bookingArchiveRepo.existsByPetId(id)) {
+            throw new RuntimeException("Cannot delete pet with associated bookings.");
+        }
+
         petRepo.delete(pet);
+        petReads().invalidate(id);
         return PetDTO.fromEntity(pet);
     }
 
+    // Không @Transactional: lỗi kết nối phải xảy ra bên trong staleReads.read để có thể trả dữ liệu cũ
     @Override
     public List<PetDTO> getMyPet() {
         // Get authenticated user's email
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName(); // Email được lưu trong principal
 
-        // Find user ID by email
-        var userId = userRepo.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found with email: " + email))
-                .getId();
-
-        // Fetch pets by user ID
-        return petRepo.findByUserId(userId).stream()
-                .map(PetDTO::fromEntity)
-                .toList();
+        // Khi DB không truy cập được, trả danh sách pet đọc được lần gần nhất
+        return staleReads.read("pets:mine:" + email, () -> {
+            // Find user ID by email
+            var userId = userRepo.findByEmail(email)
+                    .orElseThrow(() -> new RuntimeException("User not found with email: " + email))
+                    .getId();
+
+            // Fetch pets by user ID
+            return petRepo.findByUserId(userId).stream()
+                    .map(PetDTO::fromEntity)
+                    .toList();
+        });
     }
 }
@@ -2,19 +2,32 @@ package com.demo.pet.services.Impl;
 
 import com.demo.pet.dtos.ServiceBookingDTO;
 import com.demo.pet.dtos.subDTO.BookingStatusDTO;
+import com.demo.pet.events.BookingStatusChange;
+import com.demo.pet.events.BookingStatusStream;
+import com.demo.pet.events.DomainEventPublisher;
+import com.demo.pet.events.DomainEventType;
+import com.demo.pet.models.Pet;
 import com.demo.pet.models.ServiceBooking;
+import com.demo.pet.models.User;
+import com.demo.pet.repositories.PetRepo;
+import com.demo.pet.repositories.ServiceBookingArchiveRepo;
 import com.demo.pet.repositories.ServiceBookingRepo;
 import com.demo.pet.repositories.ServiceRepo;
 import com.demo.pet.repositories.UserRepo;
 import com.demo.pet.services.ServiceBookingService;
-import jakarta.transaction.Transactional;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -22,32 +35,68 @@ import java.util.List;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class ServiceBookingServiceImpl implements ServiceBookingService{
     ServiceBookingRepo bookingRepo;
+    ServiceBookingArchiveRepo archiveRepo;
     UserRepo userRepo;
     ServiceRepo serviceRepo;
+    PetRepo petRepo;
+    DomainEventPublisher eventPublisher;
+    BookingStatusStream statusStream;
+
+    @NonFinal
+    @Value("${app.archive.max-page-size:500}")
+    int archiveMaxPageSize;
 
     @Override
+    @Transactional(readOnly = true)
     public List<ServiceBookingDTO> getAllBookings() {
-        return bookingRepo.findAll().stream().map(ServiceBookingDTO::fromEntity).toList();
+        // Chỉ bảng hot: archive chỉ lớn dần, xem qua getArchivedBookings theo từng trang
+        return bookingRepo.findAllDetails();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ServiceBookingDTO> getArchivedBookings(Long beforeId, int size) {
+        if (size < 1 || size > archiveMaxPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + archiveMaxPageSize);
+        }
+        return archiveRepo.findDetailsBefore(beforeId == null ? Long.MAX_VALUE : beforeId, PageRequest.of(0, size));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ServiceBookingDTO getBookingById(Long id) {
-        return ServiceBookingDTO.fromEntity(bookingRepo.findById(id)
-                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id)));
+        return bookingRepo.findDetailsById(id)
+                .or(() -> archiveRepo.findDetailsById(id))
+                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ServiceBookingDTO> getBookingsByUserId(Long userId) {
-        return bookingRepo.findByUserId(userId).stream()
-                .map(ServiceBookingDTO::fromEntity)
-                .toList();
+        return withArchived(bookingRepo.findDetailsByUserId(userId), archiveRepo.findDetailsByUserId(userId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ServiceBookingDTO> getBookingsByServiceId(Long serviceId) {
-        return bookingRepo.findByServicesId(serviceId).stream()
-                .map(ServiceBookingDTO::fromEntity)
-                .toList();
+        return withArchived(bookingRepo.findDetailsByServiceId(serviceId), archiveRepo.findDetailsByServiceId(serviceId));
+    }
+
+    // Booking đã kết thúc lâu được chuyển sang bảng archive, ghép lại để lịch sử vẫn đầy đủ.
+    // Hai danh sách đều đã theo id tăng dần: trộn một lượt thay vì sort lại
+    private List<ServiceBookingDTO> withArchived(List<ServiceBookingDTO> active, List<ServiceBookingDTO> archived) {
+        if (archived.isEmpty()) {
+            return active;
+        }
+        List<ServiceBookingDTO> merged = new ArrayList<>(active.size() + archived.size());
+        int i = 0;
+        int j = 0;
+        while (i < active.size() && j < archived.size()) {
+            merged.add(active.get(i).getId() < archived.get(j).getId() ? active.get(i++) : archived.get(j++));
+        }
+        merged.addAll(active.subList(i, active.size()));
+        merged.addAll(archived.subList(j, archived.size()));
+        return merged;
     }
 
     @Override
@@ -59,12 +108,18 @@ public class ServiceBookingServiceImpl implements ServiceBookingService{
         serviceBooking.setEndDate(bookingDTO.getEndDate());
         serviceBooking.setStatus(ServiceBooking.SubscriptionStatus.PENDING); // Default status
         serviceBooking.setNotes(bookingDTO.getNotes());
-        serviceBooking.setUser(userRepo.findById(bookingDTO.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + bookingDTO.getUserId())));
-        serviceBooking.setServices(serviceRepo.findById(bookingDTO.getServiceId())
-                .orElseThrow(() -> new RuntimeException("Service not found with id: " + bookingDTO.getServiceId())));
+        // Chỉ cần khóa ngoại: không SELECT user/service, id sai sẽ bị FK chặn khi INSERT (404)
+        serviceBooking.setUser(userRepo.getReferenceById(bookingDTO.getUserId()));
+        serviceBooking.setServices(serviceRepo.getReferenceById(bookingDTO.getServiceId()));
+        if (bookingDTO.getPetId() != null) {
+            serviceBooking.setPet(petOf(bookingDTO.getUserId(), bookingDTO.getPetId()));
+        }
 
-        return ServiceBookingDTO.fromEntity(bookingRepo.save(serviceBooking));
+        ServiceBooking saved = bookingRepo.save(serviceBooking);
+        // Đọc lại bằng câu join để có tên pet/dịch vụ mà không nạp các proxy ở trên
+        ServiceBookingDTO created = bookingRepo.findDetailsById(saved.getId()).orElseThrow();
+        eventPublisher.publish(DomainEventType.BOOKING_CREATED, created.getId(), created);
+        return created;
     }
 
     @Override
@@ -83,22 +138,43 @@ public class ServiceBookingServiceImpl implements ServiceBookingService{
         if (bookingDTO.getEndDate() != null) serviceBooking.setEndDate(bookingDTO.getEndDate());
         if (bookingDTO.getNotes() != null) serviceBooking.setNotes(bookingDTO.getNotes());
 
-        // Ensure user ID and service ID are not null and fetch the user and service
-        if (bookingDTO.getUserId() != null) {
-            serviceBooking.setUser(userRepo.findById(bookingDTO.getUserId())
-                    .orElseThrow(() -> new RuntimeException("User not found with id: " + bookingDTO.getUserId())));
-        } else {
+        // Ensure user ID and service ID are not null
+        if (bookingDTO.getUserId() == null) {
             throw new RuntimeException("User ID cannot be null");
         }
-
-        if (bookingDTO.getServiceId() != null) {
-            serviceBooking.setServices(serviceRepo.findById(bookingDTO.getServiceId())
-                    .orElseThrow(() -> new RuntimeException("Service not found with id: " + bookingDTO.getServiceId())));
-        } else {
+        if (bookingDTO.getServiceId() == null) {
             throw new RuntimeException("Service ID cannot be null");
         }
+        boolean userChanged = !bookingDTO.getUserId().equals(serviceBooking.getUser().getId());
+        // Như createBooking: chỉ gắn khóa ngoại, id sai bị FK chặn khi flush (404)
+        serviceBooking.setUser(userRepo.getReferenceById(bookingDTO.getUserId()));
+        serviceBooking.setServices(serviceRepo.getReferenceById(bookingDTO.getServiceId()));
+
+        if (bookingDTO.getPetId() != null) {
+            serviceBooking.setPet(petOf(bookingDTO.getUserId(), bookingDTO.getPetId()));
+        } else if (userChanged && serviceBooking.getPet() != null) {
+            // Đổi user mà không gửi pet_id: pet cũ vẫn phải thuộc user mới
+            petOf(bookingDTO.getUserId(), serviceBooking.getPet().getId());
+        }
 
-        return ServiceBookingDTO.fromEntity(bookingRepo.save(serviceBooking));
+        bookingRepo.save(serviceBooking);
+        return details(id);
+    }
+
+    // Đọc lại bằng câu join như createBooking, không nạp proxy pet bằng một SELECT riêng
+    private ServiceBookingDTO details(Long id) {
+        return bookingRepo.findDetailsById(id)
+                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
+    }
+
+    // Pet của booking phải thuộc chính user đặt lịch
+    private Pet petOf(Long userId, Long petId) {
+        Long ownerId = petRepo.findOwnerIdById(petId)
+                .orElseThrow(() -> new RuntimeException("Pet not found with id: " + petId));
+        if (!ownerId.equals(userId)) {
+            throw new IllegalArgumentException("Pet " + petId + " does not belong to user " + userId);
+        }
+        return petRepo.getReferenceById(petId);
     }
 
     @Override
@@ -109,8 +185,11 @@ public class ServiceBookingServiceImpl implements ServiceBookingService{
                 .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
 
         // Check if the booking is already cancelled or completed
+        ServiceBooking.SubscriptionStatus previous = serviceBooking.getStatus();
         serviceBooking.setStatus(ServiceBooking.SubscriptionStatus.CANCELLED);
-        return ServiceBookingDTO.fromEntity(bookingRepo.save(serviceBooking));
+        ServiceBooking saved = bookingRepo.save(serviceBooking);
+        publishStatusChange(saved, previous);
+        return details(id);
     }
 
     @Override
@@ -120,18 +199,21 @@ public class ServiceBookingServiceImpl implements ServiceBookingService{
                 .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
 
         if (serviceBooking.getStatus() == ServiceBooking.SubscriptionStatus.PENDING) {
+            ServiceBookingDTO deleted = details(id);
             bookingRepo.delete(serviceBooking);
-            return ServiceBookingDTO.fromEntity(serviceBooking);
+            return deleted;
         }
         throw new IllegalStateException("Cannot delete booking with status: " + serviceBooking.getStatus());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookingStatusDTO getBookingStatus(Long id){
-        ServiceBooking serviceBooking = bookingRepo.findById(id)
+        return bookingRepo.findById(id)
+                .map(booking -> new BookingStatusDTO(booking.getId(), booking.getStatus().name()))
+                .or(() -> archiveRepo.findById(id)
+                        .map(archived -> new BookingStatusDTO(archived.getId(), archived.getStatus().name())))
                 .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
-
-        return new BookingStatusDTO(serviceBooking.getId(), serviceBooking.getStatus().name());
     }
 
     @Override
@@ -140,16 +222,31 @@ public class ServiceBookingServiceImpl implements ServiceBookingService{
         ServiceBooking serviceBooking = bookingRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
 
+        ServiceBooking.SubscriptionStatus previous = serviceBooking.getStatus();
         try {
             serviceBooking.setStatus(ServiceBooking.SubscriptionStatus.valueOf(status.toUpperCase()));
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid status: " + status);
         }
 
-        return ServiceBookingDTO.fromEntity(bookingRepo.save(serviceBooking));
+        ServiceBooking saved = bookingRepo.save(serviceBooking);
+        publishStatusChange(saved, previous);
+        return details(id);
+    }
+
+    private void publishStatusChange(ServiceBooking booking, ServiceBooking.SubscriptionStatus previous) {
+        if (previous == booking.getStatus()) {
+            return;
+        }
+        eventPublisher.publish(DomainEventType.BOOKING_STATUS_CHANGED, booking.getId(), new BookingStatusChange(
+                booking.getId(),
+                booking.getUser().getId(),
+                previous != null ? previous.name() : null,
+                booking.getStatus().name()));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ServiceBookingDTO> getMyBookings() {
         // Get authenticated user's email
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -161,8 +258,16 @@ public class ServiceBookingServiceImpl implements ServiceBookingService{
                 .getId();
 
         // Fetch bookings by user ID
-        return bookingRepo.findByUserId(userId).stream()
-                .map(ServiceBookingDTO::fromEntity)
-                .toList();
+        return withArchived(bookingRepo.findDetailsByUserId(userId), archiveRepo.findDetailsByUserId(userId));
+    }
+
+    @Override
+    public SseEmitter streamStatusChanges() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userRepo.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
+
+        // Owner chỉ nhận booking của mình, các role còn lại (staff, doctor, admin) nhận tất cả
+        return statusStream.subscribe(user.getId(), user.getRoles() != User.Roles.OWNER);
     }
 }
@@ -4,6 +4,9 @@ import com.demo.pet.dtos.ServicesDTO;
 import com.demo.pet.models.ServiceBooking;
 import com.demo.pet.models.Services;
 import com.demo.pet.repositories.ServiceRepo;
+import com.demo.pet.resilience.SingleFlight;
+import com.demo.pet.resilience.SingleFlightRegistry;
+import com.demo.pet.resilience.StaleReadCache;
 import com.demo.pet.services.ServicesService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -18,16 +21,25 @@ import java.util.Objects;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class ServicesServiceImpl implements ServicesService {
     ServiceRepo serviceRepo;
+    SingleFlightRegistry singleFlights;
+    StaleReadCache staleReads;
+
+    // Danh mục dịch vụ ít thay đổi nhưng được đọc rất nhiều, gộp các lần đọc trùng nhau
+    // (transaction read-only nằm trong repository, chỉ request chạy truy vấn mới lấy connection)
+    private SingleFlight serviceReads() {
+        return singleFlights.forName("services");
+    }
 
     @Override
     public List<ServicesDTO> getAllServices() {
-        return serviceRepo.findAll().stream().map(ServicesDTO::fromEntity).toList();
+        return staleReads.read("services:all", () -> serviceReads().execute("all",
+                () -> serviceRepo.findAll().stream().map(ServicesDTO::fromEntity).toList()));
     }
 
     @Override
     public ServicesDTO getServicesById(Long id) {
-        return ServicesDTO.fromEntity(Objects.requireNonNull(serviceRepo.findById(id)
-                .orElseThrow(()-> new RuntimeException("Services not found with id: " + id))));
+        return staleReads.read("services:" + id, () -> serviceReads().execute(id, () -> ServicesDTO.fromEntity(Objects.requireNonNull(serviceRepo.findById(id)
+                .orElseThrow(()-> new RuntimeException("Services not found with id: " + id))))));
     }
 
     @Override
@@ -39,7 +51,9 @@ public class ServicesServiceImpl implements ServicesService {
         services.setDescription(servicesDTO.getDescription());
         services.setPrice(servicesDTO.getPrice());
 
-        return ServicesDTO.fromEntity(serviceRepo.save(services));
+        ServicesDTO saved = ServicesDTO.fromEntity(serviceRepo.save(services));
+        serviceReads().invalidateAll();
+        return saved;
     }
 
     @Override
@@ -57,7 +71,9 @@ public class ServicesServiceImpl implements ServicesService {
         if(servicesDTO.getDescription() != null) services.setDescription(servicesDTO.getDescription());
         if(servicesDTO.getPrice() != null) services.setPrice(servicesDTO.getPrice());
 
-        return ServicesDTO.fromEntity(serviceRepo.save(services));
+        ServicesDTO saved = ServicesDTO.fromEntity(serviceRepo.save(services));
+        serviceReads().invalidateAll();
+        return saved;
     }
 
     @Override
@@ -79,6 +95,7 @@ public class ServicesServiceImpl implements ServicesService {
 //        }
 
         serviceRepo.delete(services);
+        serviceReads().invalidateAll();
 
         return ServicesDTO.fromEntity(services);
     }
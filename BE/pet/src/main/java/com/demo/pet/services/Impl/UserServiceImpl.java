@@ -3,6 +3,10 @@ package com.demo.pet.services.Impl;
 import com.demo.pet.dtos.UserDTO;
 import com.demo.pet.dtos.subDTO.UserRoleDTO;
 import com.demo.pet.models.User;
+import com.demo.pet.repositories.MedicalRecordRepo;
+import com.demo.pet.repositories.PetRepo;
+import com.demo.pet.repositories.ServiceBookingArchiveRepo;
+import com.demo.pet.repositories.ServiceBookingRepo;
 import com.demo.pet.repositories.UserRepo;
 import com.demo.pet.services.UserService;
 import lombok.AccessLevel;
@@ -22,20 +26,27 @@ import java.util.List;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class UserServiceImpl implements UserService{
     UserRepo userRepo;
+    ServiceBookingArchiveRepo bookingArchiveRepo;
+    PetRepo petRepo;
+    ServiceBookingRepo serviceBookingRepo;
+    MedicalRecordRepo medicalRecordRepo;
     PasswordEncoder passwordEncoder;
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
         return userRepo.findAll().stream().map(UserDTO::fromEntity).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
         return UserDTO.fromEntity(userRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id)));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDTO getUserByEmail(String email) {
         return UserDTO.fromEntity(userRepo.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + email)));
@@ -108,9 +119,11 @@ public class UserServiceImpl implements UserService{
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
 
         // Check if user has any pets, bookings, or medical records before deletion
-        if (!user.getPetList().isEmpty() ||
-                !user.getServiceBookingList().isEmpty() ||
-                !user.getMedicalRecordList().isEmpty()) {
+        // EXISTS trên từng bảng thay vì nạp cả ba collection chỉ để gọi isEmpty()
+        if (petRepo.existsByUserId(id) ||
+                serviceBookingRepo.existsByUserId(id) ||
+                medicalRecordRepo.existsByUserId(id) ||
+                bookingArchiveRepo.existsByUserId(id)) {
             throw new IllegalStateException("Cannot delete user with associated records");
         }
 
@@ -119,6 +132,7 @@ public class UserServiceImpl implements UserService{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDTO getMyInfo() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName(); // Email được lưu trong principal
@@ -130,6 +144,7 @@ public class UserServiceImpl implements UserService{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserRoleDTO getUserRole(Long id){
         User user = userRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
@@ -4,6 +4,8 @@ import com.demo.pet.dtos.ServiceBookingDTO;
 import com.demo.pet.dtos.subDTO.BookingStatusDTO;
 import com.demo.pet.models.ServiceBooking;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 import java.util.List;
 
 
@@ -14,12 +16,22 @@ import java.util.List;
  */
 public interface ServiceBookingService {
     /**
-     * Get all service bookings.
+     * Get all active service bookings. Archived bookings are not included, see {@link #getArchivedBookings}.
      *
-     * @return List of ServiceBookingDTO representing all bookings.
+     * @return List of ServiceBookingDTO representing all bookings still in the booking table.
      */
     List<ServiceBookingDTO> getAllBookings();
 
+    /**
+     * Get one page of archived bookings, newest first. Pass the id of the last booking of a page
+     * as {@code beforeId} to get the next one.
+     *
+     * @param beforeId Only bookings with a lower ID are returned; null for the first page.
+     * @param size     The maximum number of bookings to return.
+     * @return List of ServiceBookingDTO representing the archived bookings, by descending ID.
+     */
+    List<ServiceBookingDTO> getArchivedBookings(Long beforeId, int size);
+
     /**
      * Get a booking by its ID.
      *
@@ -100,4 +112,12 @@ public interface ServiceBookingService {
      * @return List of ServiceBookingDTO representing the user's bookings.
      */
     List<ServiceBookingDTO> getMyBookings();
+
+    /**
+     * Open a server-sent event stream of booking status changes for the currently authenticated user.
+     * Owners receive changes to their own bookings, staff receive all of them.
+     *
+     * @return SseEmitter that stays open until the client disconnects or the stream times out.
+     */
+    SseEmitter streamStatusChanges();
 }
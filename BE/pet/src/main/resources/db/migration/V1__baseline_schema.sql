@@ -0,0 +1,147 @@
+-- Baseline: schema as previously generated by hibernate ddl-auto=update.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-version) and skip this file.
+
+CREATE TABLE users (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    name        VARCHAR(255),
+    password    VARCHAR(255),
+    phone       VARCHAR(255),
+    email       VARCHAR(255),
+    roles       VARCHAR(20) DEFAULT 'OWNER',
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_phone UNIQUE (phone),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE pet (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    name        VARCHAR(100) NOT NULL,
+    birth_date  DATE,
+    gender      ENUM ('MALE', 'FEMALE'),
+    species     VARCHAR(50),
+    color       VARCHAR(30),
+    health_info TEXT,
+    user_id     BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_pet_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE cage (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    type        VARCHAR(50)  NOT NULL,
+    size        VARCHAR(30)  NOT NULL,
+    status      VARCHAR(20) DEFAULT 'AVAILABLE',
+    start_date  DATE,
+    end_date    DATE,
+    pet_id      BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_cage_pet UNIQUE (pet_id),
+    CONSTRAINT fk_cage_pet FOREIGN KEY (pet_id) REFERENCES pet (id)
+);
+
+CREATE TABLE services (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    name        VARCHAR(100) NOT NULL,
+    category    ENUM ('EMERGENCY', 'HEALTH', 'CARE', 'MEDICAL'),
+    description TEXT,
+    price       DOUBLE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE service_booking (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    start_date  DATE         NOT NULL,
+    end_date    DATE,
+    status      VARCHAR(20) DEFAULT 'PENDING',
+    notes       TEXT,
+    user_id     BIGINT       NOT NULL,
+    service_id  BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_service_booking_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_service_booking_service FOREIGN KEY (service_id) REFERENCES services (id)
+);
+CREATE INDEX idx_service_booking_status_updated_at ON service_booking (status, updated_at);
+
+CREATE TABLE medical_record (
+    id                BIGINT NOT NULL AUTO_INCREMENT,
+    created_at        DATETIME(6),
+    updated_at        DATETIME(6),
+    diagnosis         TEXT   NOT NULL,
+    prescription      TEXT,
+    notes             TEXT,
+    next_meeting_date DATE,
+    pet_id            BIGINT NOT NULL,
+    user_id           BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_medical_record_pet FOREIGN KEY (pet_id) REFERENCES pet (id),
+    CONSTRAINT fk_medical_record_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+CREATE INDEX idx_medical_record_next_meeting_date ON medical_record (next_meeting_date);
+
+CREATE TABLE outbox_event (
+    id             BIGINT      NOT NULL AUTO_INCREMENT,
+    created_at     DATETIME(6),
+    updated_at     DATETIME(6),
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id   BIGINT      NOT NULL,
+    event_type     VARCHAR(50) NOT NULL,
+    payload        TEXT,
+    published_at   DATETIME(6),
+    attempts       INT         NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_outbox_event_published_at ON outbox_event (published_at, id);
+
+CREATE TABLE follow_up_reminder (
+    id                BIGINT NOT NULL AUTO_INCREMENT,
+    created_at        DATETIME(6),
+    updated_at        DATETIME(6),
+    medical_record_id BIGINT NOT NULL,
+    pet_id            BIGINT NOT NULL,
+    pet_name          VARCHAR(100),
+    owner_id          BIGINT NOT NULL,
+    recipient         VARCHAR(255),
+    due_date          DATE   NOT NULL,
+    send_on           DATE   NOT NULL,
+    status            VARCHAR(20) DEFAULT 'PENDING',
+    attempts          INT    NOT NULL,
+    sent_at           DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_follow_up_reminder_record_due UNIQUE (medical_record_id, due_date)
+);
+CREATE INDEX idx_follow_up_reminder_status_send_on ON follow_up_reminder (status, send_on);
+
+CREATE TABLE job_watermark (
+    job_name   VARCHAR(100) NOT NULL,
+    pass_date  DATE,
+    last_date  DATE,
+    last_id    BIGINT,
+    updated_at DATETIME(6),
+    PRIMARY KEY (job_name)
+);
+
+CREATE TABLE service_booking_archive (
+    id          BIGINT      NOT NULL,
+    start_date  DATE        NOT NULL,
+    end_date    DATE,
+    status      VARCHAR(20),
+    notes       TEXT,
+    user_id     BIGINT      NOT NULL,
+    service_id  BIGINT      NOT NULL,
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_service_booking_archive_user ON service_booking_archive (user_id, start_date);
+CREATE INDEX idx_service_booking_archive_service ON service_booking_archive (service_id, start_date);
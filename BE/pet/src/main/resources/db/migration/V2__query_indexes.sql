@@ -0,0 +1,14 @@
+-- Indexes for the repository queries.
+-- medical_record(next_meeting_date) already exists from V1 (idx_medical_record_next_meeting_date).
+
+-- findByUserId / my-bookings, filtered or sorted by status and date
+CREATE INDEX idx_service_booking_user_status_start ON service_booking (user_id, status, start_date);
+
+-- findByServicesId
+CREATE INDEX idx_service_booking_service_start ON service_booking (service_id, start_date);
+
+-- findByPetId on medical records, newest first
+CREATE INDEX idx_medical_record_pet_created ON medical_record (pet_id, created_at);
+
+-- cage board by status
+CREATE INDEX idx_cage_status ON cage (status);
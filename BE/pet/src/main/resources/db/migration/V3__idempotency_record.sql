@@ -0,0 +1,16 @@
+-- Responses of create requests sent with an Idempotency-Key, replayed on retries.
+-- record_key = SHA-256 of (principal, route, key); request_hash = SHA-256 of the request body.
+CREATE TABLE idempotency_record (
+    record_key      VARCHAR(64)  NOT NULL,
+    route           VARCHAR(100) NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    status          VARCHAR(20)  NOT NULL,
+    response_status INT,
+    content_type    VARCHAR(100),
+    response_body   TEXT,
+    locked_until    DATETIME(6),
+    expires_at      DATETIME(6)  NOT NULL,
+    created_at      DATETIME(6),
+    PRIMARY KEY (record_key)
+);
+CREATE INDEX idx_idempotency_record_expires_at ON idempotency_record (expires_at);
@@ -0,0 +1,7 @@
+-- The pet a booking is for. Nullable: bookings made before this column existed have none.
+ALTER TABLE service_booking ADD COLUMN pet_id BIGINT;
+ALTER TABLE service_booking ADD CONSTRAINT fk_service_booking_pet FOREIGN KEY (pet_id) REFERENCES pet (id);
+CREATE INDEX idx_service_booking_pet ON service_booking (pet_id);
+
+-- Archived rows keep the plain id, like user_id and service_id
+ALTER TABLE service_booking_archive ADD COLUMN pet_id BIGINT;
@@ -0,0 +1,7 @@
+-- Changes to objects of V1-V4, which are released and must not be edited (checksums).
+
+-- The reminder job keeps its scan position only for the duration of a run
+DROP TABLE job_watermark;
+
+-- Pet delete guard checks archived history too
+CREATE INDEX idx_service_booking_archive_pet ON service_booking_archive (pet_id);
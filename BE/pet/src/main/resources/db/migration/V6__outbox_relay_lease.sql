@@ -0,0 +1,8 @@
+-- One row per relay job: the node whose lease has not lapsed is the only one draining the outbox.
+CREATE TABLE outbox_relay_lease (
+    name        VARCHAR(50)  NOT NULL,
+    owner       VARCHAR(100),
+    lease_until DATETIME(6),
+    PRIMARY KEY (name)
+);
+INSERT INTO outbox_relay_lease (name, owner, lease_until) VALUES ('outbox-relay', NULL, NULL);
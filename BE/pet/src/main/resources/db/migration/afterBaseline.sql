@@ -0,0 +1,64 @@
+-- Flyway callback, runs once right after a database created by hibernate ddl-auto=update is marked
+-- as version 1 (spring.flyway.baseline-on-migrate). Such a database never runs V1, so it gets here
+-- the objects V1 created beyond that schema, before V2 onwards run. A fresh database runs V1
+-- instead and never gets here. Keep in step with V1; never change it once released.
+CREATE INDEX idx_service_booking_status_updated_at ON service_booking (status, updated_at);
+CREATE INDEX idx_medical_record_next_meeting_date ON medical_record (next_meeting_date);
+
+CREATE TABLE outbox_event (
+    id             BIGINT      NOT NULL AUTO_INCREMENT,
+    created_at     DATETIME(6),
+    updated_at     DATETIME(6),
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id   BIGINT      NOT NULL,
+    event_type     VARCHAR(50) NOT NULL,
+    payload        TEXT,
+    published_at   DATETIME(6),
+    attempts       INT         NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_outbox_event_published_at ON outbox_event (published_at, id);
+
+CREATE TABLE follow_up_reminder (
+    id                BIGINT NOT NULL AUTO_INCREMENT,
+    created_at        DATETIME(6),
+    updated_at        DATETIME(6),
+    medical_record_id BIGINT NOT NULL,
+    pet_id            BIGINT NOT NULL,
+    pet_name          VARCHAR(100),
+    owner_id          BIGINT NOT NULL,
+    recipient         VARCHAR(255),
+    due_date          DATE   NOT NULL,
+    send_on           DATE   NOT NULL,
+    status            VARCHAR(20) DEFAULT 'PENDING',
+    attempts          INT    NOT NULL,
+    sent_at           DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_follow_up_reminder_record_due UNIQUE (medical_record_id, due_date)
+);
+CREATE INDEX idx_follow_up_reminder_status_send_on ON follow_up_reminder (status, send_on);
+
+CREATE TABLE job_watermark (
+    job_name   VARCHAR(100) NOT NULL,
+    pass_date  DATE,
+    last_date  DATE,
+    last_id    BIGINT,
+    updated_at DATETIME(6),
+    PRIMARY KEY (job_name)
+);
+
+CREATE TABLE service_booking_archive (
+    id          BIGINT      NOT NULL,
+    start_date  DATE        NOT NULL,
+    end_date    DATE,
+    status      VARCHAR(20),
+    notes       TEXT,
+    user_id     BIGINT      NOT NULL,
+    service_id  BIGINT      NOT NULL,
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_service_booking_archive_user ON service_booking_archive (user_id, start_date);
+CREATE INDEX idx_service_booking_archive_service ON service_booking_archive (service_id, start_date);
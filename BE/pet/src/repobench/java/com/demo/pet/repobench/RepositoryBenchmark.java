@@ -0,0 +1,368 @@
+package com.demo.pet.repobench;
+
+import com.demo.pet.PetApplication;
+import com.demo.pet.models.Cage;
+import com.demo.pet.models.FollowUpReminder;
+import com.demo.pet.models.ServiceBooking;
+import com.demo.pet.repositories.CageRepo;
+import com.demo.pet.repositories.FollowUpReminderRepo;
+import com.demo.pet.repositories.MedicalRecordRepo;
+import com.demo.pet.repositories.OutboxEventRepo;
+import com.demo.pet.repositories.PetRepo;
+import com.demo.pet.repositories.ServiceBookingArchiveRepo;
+import com.demo.pet.repositories.ServiceBookingRepo;
+import com.demo.pet.repositories.ServiceRepo;
+import com.demo.pet.repositories.UserRepo;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Times every repository finder against 10k / 100k / 1M-booking datasets in embedded H2 (MySQL
+ * mode, Flyway schema), captures the plan of each statement it issues and fails when:
+ * <ul>
+ *     <li>a statement plan contains a table scan (unless the case is a deliberate full read),</li>
+ *     <li>a call issues more than {@code repobench.max-statements} statements, so an N+1 cannot be
+ *     recorded into the baseline as normal,</li>
+ *     <li>the number of statements per call grows beyond the stored baseline,</li>
+ *     <li>with {@code repobench.check-latency=true} only, p50 latency regresses beyond
+ *     {@code repobench.max-regression} of the baseline. Off by default: the baseline holds absolute
+ *     timings from one machine.</li>
+ * </ul>
+ * Data is generated by {@link com.demo.pet.config.SyntheticDataSeeder}; the archive, outbox
+ * and reminder tables are filled from it with SQL.
+ * <pre>
+ * mvn -Prepobench -DskipTests verify -Drepobench.args="--repobench.scales=10000,100000"
+ * </pre>
+ */
+public final class RepositoryBenchmark {
+    private static final Path BASELINE = Path.of("src/repobench/baseline.csv");
+    private static final String HEADER = "scale,case,p50_us,p99_us,statements";
+
+    private final Map<String, String> options;
+    private final int warmup;
+    private final int iterations;
+    private final long budgetNanos;
+    private final int maxStatements;
+    private final boolean checkLatency;
+    private final double maxRegression;
+    private final long slackMicros;
+    private final Path output;
+    private final Map<String, String[]> baseline;
+    private final List<String> results = new ArrayList<>();
+    private final List<String> plans = new ArrayList<>();
+    private final List<String> failures = new ArrayList<>();
+
+    private RepositoryBenchmark(Map<String, String> options) throws IOException {
+        this.options = options;
+        this.warmup = Integer.parseInt(options.getOrDefault("repobench.warmup", "20"));
+        this.iterations = Integer.parseInt(options.getOrDefault("repobench.iterations", "200"));
+        this.budgetNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("repobench.case-budget-seconds", "10")));
+        this.maxStatements = Integer.parseInt(options.getOrDefault("repobench.max-statements", "2"));
+        this.checkLatency = Boolean.parseBoolean(options.getOrDefault("repobench.check-latency", "false"));
+        this.maxRegression = Double.parseDouble(options.getOrDefault("repobench.max-regression", "0.5"));
+        this.slackMicros = Long.parseLong(options.getOrDefault("repobench.slack-us", "250"));
+        this.output = Path.of(options.getOrDefault("repobench.output", "target/repobench"));
+        this.baseline = loadBaseline();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        RepositoryBenchmark benchmark = new RepositoryBenchmark(options);
+        for (String scale : options.getOrDefault("repobench.scales", "10000,100000,1000000").split(",")) {
+            benchmark.runScale(Integer.parseInt(scale.trim()));
+        }
+        System.exit(benchmark.finish() ? 0 : 1);
+    }
+
+    private void runScale(int bookings) throws Exception {
+        System.out.printf("%n== %,d bookings: seeding...%n", bookings);
+        long seedStarted = System.nanoTime();
+        try (ConfigurableApplicationContext context = start(bookings)) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            fillDerivedTables(jdbc);
+            System.out.printf("   seeded in %d s%n", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - seedStarted));
+
+            Fixture f = new Fixture(jdbc);
+            ServiceBookingRepo bookingRepo = context.getBean(ServiceBookingRepo.class);
+            ServiceBookingArchiveRepo archiveRepo = context.getBean(ServiceBookingArchiveRepo.class);
+            MedicalRecordRepo recordRepo = context.getBean(MedicalRecordRepo.class);
+            PetRepo petRepo = context.getBean(PetRepo.class);
+            CageRepo cageRepo = context.getBean(CageRepo.class);
+            UserRepo userRepo = context.getBean(UserRepo.class);
+            ServiceRepo serviceRepo = context.getBean(ServiceRepo.class);
+            OutboxEventRepo outboxRepo = context.getBean(OutboxEventRepo.class);
+            FollowUpReminderRepo reminderRepo = context.getBean(FollowUpReminderRepo.class);
+            LocalDate today = LocalDate.now();
+
+            Map<String, Case> cases = new LinkedHashMap<>();
+            cases.put("ServiceBookingRepo.findById", new Case(false, r -> bookingRepo.findById(f.pick(f.bookings, r))));
+            cases.put("ServiceBookingRepo.findDetailsById", new Case(false, r -> bookingRepo.findDetailsById(f.pick(f.bookings, r))));
+            cases.put("ServiceBookingRepo.findDetailsByUserId", new Case(false, r -> bookingRepo.findDetailsByUserId(f.pick(f.owners, r))));
+            cases.put("ServiceBookingRepo.findDetailsByServiceId", new Case(false, r -> bookingRepo.findDetailsByServiceId(f.pick(f.services, r))));
+            cases.put("ServiceBookingRepo.findArchivableIds", new Case(false, r -> bookingRepo.findArchivableIds(
+                    EnumSet.of(ServiceBooking.SubscriptionStatus.COMPLETED, ServiceBooking.SubscriptionStatus.CANCELLED),
+                    LocalDateTime.now().minusDays(180), PageRequest.of(0, 500))));
+            cases.put("ServiceBookingArchiveRepo.findDetailsBefore", new Case(false, r -> archiveRepo.findDetailsBefore(
+                    f.pick(f.bookings, r), PageRequest.of(0, 100))));
+            cases.put("ServiceBookingArchiveRepo.findDetailsByUserId", new Case(false, r -> archiveRepo.findDetailsByUserId(f.pick(f.owners, r))));
+            cases.put("ServiceBookingArchiveRepo.existsByUserId", new Case(false, r -> archiveRepo.existsByUserId(f.pick(f.owners, r))));
+            cases.put("ServiceBookingRepo.existsByPetId", new Case(false, r -> bookingRepo.existsByPetId(f.pick(f.pets, r))));
+            cases.put("ServiceBookingArchiveRepo.existsByPetId", new Case(false, r -> archiveRepo.existsByPetId(f.pick(f.pets, r))));
+            cases.put("MedicalRecordRepo.findDetailsByPetId", new Case(false, r -> recordRepo.findDetailsByPetId(f.pick(f.pets, r))));
+            cases.put("MedicalRecordRepo.findDetailsByUserId", new Case(false, r -> recordRepo.findDetailsByUserId(f.pick(f.doctors, r))));
+            cases.put("MedicalRecordRepo.findReminderCandidates", new Case(false, r -> recordRepo.findReminderCandidates(
+                    today.minusDays(1), Long.MAX_VALUE, today.plusDays(1), PageRequest.of(0, 500))));
+            cases.put("PetRepo.findByUserId", new Case(false, r -> petRepo.findByUserId(f.pick(f.owners, r))));
+            cases.put("PetRepo.findById", new Case(false, r -> petRepo.findById(f.pick(f.pets, r))));
+            cases.put("CageRepo.findByPetId", new Case(false, r -> cageRepo.findByPetId(f.pick(f.pets, r))));
+            cases.put("CageRepo.findAll", new Case(true, r -> cageRepo.findAll()));
+            cases.put("CageRepo.findByStatus", new Case(false, r -> cageRepo.findByStatus(Cage.Status.values()[r.nextInt(Cage.Status.values().length)])));
+            cases.put("UserRepo.findByEmail", new Case(false, r -> userRepo.findByEmail(f.pick(f.emails, r))));
+            cases.put("UserRepo.findByPhone", new Case(false, r -> userRepo.findByPhone(f.pick(f.phones, r))));
+            cases.put("UserRepo.existsByEmail", new Case(false, r -> userRepo.existsByEmail(f.pick(f.emails, r))));
+            cases.put("UserRepo.existsByPhone", new Case(false, r -> userRepo.existsByPhone(f.pick(f.phones, r))));
+            cases.put("ServiceRepo.findAll", new Case(true, r -> serviceRepo.findAll()));
+            cases.put("OutboxEventRepo.findByPublishedAtIsNullOrderByIdAsc", new Case(false,
+                    r -> outboxRepo.findByPublishedAtIsNullOrderByIdAsc(PageRequest.of(0, 100))));
+            cases.put("FollowUpReminderRepo.findByStatusAndSendOnLessThanEqualOrderByIdAsc", new Case(false,
+                    r -> reminderRepo.findByStatusAndSendOnLessThanEqualOrderByIdAsc(
+                            FollowUpReminder.Status.PENDING, today, PageRequest.of(0, 100))));
+
+            System.out.printf("   %-70s %10s %10s %6s%n", "case", "p50 us", "p99 us", "stmts");
+            try (Connection connection = jdbc.getDataSource().getConnection()) {
+                for (Map.Entry<String, Case> entry : cases.entrySet()) {
+                    measure(bookings, entry.getKey(), entry.getValue(), connection);
+                }
+            }
+        }
+    }
+
+    private void measure(int scale, String name, Case benchmarkCase, Connection connection) throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+
+        // One captured call: statements issued and their plans
+        CapturingStatementInspector.start();
+        benchmarkCase.call().accept(random);
+        List<String> statements = CapturingStatementInspector.stop();
+        for (String sql : new LinkedHashSet<>(statements)) {
+            String plan = explain(connection, sql);
+            plans.add(scale + " " + name + System.lineSeparator() + "  " + sql + System.lineSeparator()
+                    + "  " + plan.replace("\n", System.lineSeparator() + "  "));
+            if (!benchmarkCase.scanAllowed() && plan.contains(".tableScan")) {
+                failures.add(String.format("%d %s: full table scan%n  %s%n  %s", scale, name, sql, plan.replace("\n", " ")));
+            }
+        }
+
+        for (int i = 0; i < warmup; i++) {
+            benchmarkCase.call().accept(random);
+        }
+        Histogram histogram = new Histogram(TimeUnit.MINUTES.toMicros(5), 3);
+        long deadline = System.nanoTime() + budgetNanos;
+        for (int i = 0; i < iterations && (i < 3 || System.nanoTime() < deadline); i++) {
+            long started = System.nanoTime();
+            benchmarkCase.call().accept(random);
+            histogram.recordValue((System.nanoTime() - started) / 1000);
+        }
+
+        long p50 = histogram.getValueAtPercentile(50);
+        long p99 = histogram.getValueAtPercentile(99);
+        System.out.printf("   %-70s %10d %10d %6d%n", name, p50, p99, statements.size());
+        results.add(String.join(",", Integer.toString(scale), name, Long.toString(p50), Long.toString(p99),
+                Integer.toString(statements.size())));
+        compareWithBaseline(scale, name, p50, statements.size());
+    }
+
+    private void compareWithBaseline(int scale, String name, long p50, int statements) {
+        if (statements > maxStatements) {
+            failures.add(String.format("%d %s: %d statements per call, more than %d (N+1?)", scale, name, statements, maxStatements));
+        }
+        String[] previous = baseline.get(scale + "," + name);
+        if (previous == null) {
+            return;
+        }
+        long baselineP50 = Long.parseLong(previous[2]);
+        int baselineStatements = Integer.parseInt(previous[4]);
+        if (checkLatency && p50 > baselineP50 * (1 + maxRegression) + slackMicros) {
+            failures.add(String.format("%d %s: p50 %d us vs baseline %d us", scale, name, p50, baselineP50));
+        }
+        if (statements > baselineStatements) {
+            failures.add(String.format("%d %s: %d statements per call vs baseline %d", scale, name, statements, baselineStatements));
+        }
+    }
+
+    // H2 needs values for parameters; NULL does not change the plan, which is fixed at prepare time
+    private static String explain(Connection connection, String sql) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setObject(i, null);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1));
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private boolean finish() throws IOException {
+        Files.createDirectories(output);
+        List<String> csv = new ArrayList<>();
+        csv.add(HEADER);
+        csv.addAll(results);
+        Files.write(output.resolve("results.csv"), csv);
+        Files.write(output.resolve("plans.txt"), plans);
+        boolean updateBaseline = Boolean.parseBoolean(options.getOrDefault("repobench.update-baseline", "false"));
+        if (updateBaseline && !failures.isEmpty()) {
+            // Không ghi scan hay N+1 vào baseline như thể là bình thường
+            System.out.println("Baseline not updated: fix the failures below first");
+        } else if (updateBaseline) {
+            Map<String, String> merged = new LinkedHashMap<>();
+            baseline.forEach((key, row) -> merged.put(key, String.join(",", row)));
+            for (String row : results) {
+                String[] cols = row.split(",");
+                merged.put(cols[0] + "," + cols[1], row);
+            }
+            List<String> lines = new ArrayList<>();
+            lines.add(HEADER);
+            lines.addAll(merged.values());
+            Files.write(BASELINE, lines);
+            System.out.println("Baseline updated: " + BASELINE.toAbsolutePath());
+        }
+
+        System.out.println();
+        System.out.println("Results and query plans written to " + output.toAbsolutePath());
+        if (failures.isEmpty()) {
+            System.out.println("Repository benchmark passed");
+            return true;
+        }
+        System.out.println("Repository benchmark FAILED:");
+        failures.forEach(failure -> System.out.println(" - " + failure));
+        return false;
+    }
+
+    private Map<String, String[]> loadBaseline() throws IOException {
+        Map<String, String[]> rows = new LinkedHashMap<>();
+        if (Files.exists(BASELINE)) {
+            for (String line : Files.readAllLines(BASELINE)) {
+                if (line.isBlank() || line.startsWith(HEADER)) {
+                    continue;
+                }
+                String[] cols = line.split(",");
+                rows.put(cols[0] + "," + cols[1], cols);
+            }
+        }
+        return rows;
+    }
+
+    private ConfigurableApplicationContext start(int bookings) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:repobench" + bookings + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.hikari.data-source-properties.rewriteBatchedStatements", "");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.properties.hibernate.session_factory.statement_inspector", CapturingStatementInspector.class.getName());
+        properties.put("spring.jpa.show-sql", "false");
+        // SecurityConfig needs the MVC context, so keep the web server but on a random port
+        properties.put("server.port", "0");
+        properties.put("logging.level.root", "WARN");
+        // Background jobs would compete with the measurements
+        properties.put("app.outbox.relay-enabled", "false");
+        properties.put("app.reminders.enabled", "false");
+        properties.put("app.archive.enabled", "false");
+        properties.put("app.seed.bookings", bookings);
+        properties.put("app.seed.owners", Math.max(100, bookings / 50));
+        properties.put("app.seed.pets", Math.max(200, bookings / 25));
+        properties.put("app.seed.medical-records", Math.max(1000, bookings / 5));
+
+        // System properties override application.properties, which points at MySQL
+        properties.forEach((key, value) -> System.setProperty(key, value.toString()));
+        options.forEach((key, value) -> {
+            if (!key.startsWith("repobench.")) {
+                System.setProperty(key, value);
+            }
+        });
+        SpringApplication application = new SpringApplication(PetApplication.class);
+        application.setAdditionalProfiles("seed");
+        return application.run();
+    }
+
+    // Archive, outbox and reminder tables are derived from the seeded rows
+    private static void fillDerivedTables(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO service_booking_archive "
+                + "(id, start_date, end_date, status, notes, user_id, service_id, pet_id, created_at, updated_at, archived_at) "
+                + "SELECT id, start_date, end_date, status, notes, user_id, service_id, pet_id, created_at, updated_at, updated_at "
+                + "FROM service_booking WHERE MOD(id, 4) = 0 AND status IN ('COMPLETED', 'CANCELLED')");
+        jdbc.update("INSERT INTO outbox_event (created_at, updated_at, aggregate_type, aggregate_id, event_type, payload, published_at, attempts) "
+                + "SELECT created_at, created_at, 'BOOKING', id, 'BOOKING_CREATED', '{}', "
+                + "CASE WHEN MOD(id, 100) = 0 THEN NULL ELSE updated_at END, 0 "
+                + "FROM service_booking WHERE MOD(id, 5) = 0");
+        jdbc.update("INSERT INTO follow_up_reminder "
+                + "(created_at, updated_at, medical_record_id, pet_id, pet_name, owner_id, recipient, due_date, send_on, status, attempts) "
+                + "SELECT r.created_at, r.created_at, r.id, p.id, p.name, p.user_id, 'owner@example.com', "
+                + "r.next_meeting_date, DATEADD('DAY', -1, r.next_meeting_date), "
+                + "CASE WHEN r.next_meeting_date >= CURRENT_DATE THEN 'PENDING' ELSE 'SENT' END, 0 "
+                + "FROM medical_record r JOIN pet p ON p.id = r.pet_id WHERE r.next_meeting_date IS NOT NULL");
+        jdbc.execute("ANALYZE");
+    }
+
+    private record Case(boolean scanAllowed, Consumer<SplittableRandom> call) {
+    }
+
+    /**
+     * Ids and keys that exist at this scale, so every lookup hits a real row. Taken in id order,
+     * not at random, so statement counts per call are comparable between runs.
+     */
+    private static final class Fixture {
+        final List<Long> bookings;
+        final List<Long> owners;
+        final List<Long> doctors;
+        final List<Long> pets;
+        final List<Long> services;
+        final List<String> emails;
+        final List<String> phones;
+
+        Fixture(JdbcTemplate jdbc) {
+            bookings = jdbc.queryForList("SELECT id FROM service_booking ORDER BY id LIMIT 1000", Long.class);
+            owners = jdbc.queryForList("SELECT id FROM users WHERE roles = 'OWNER' AND email <> 'seed-complete@example.com' "
+                    + "ORDER BY id LIMIT 1000", Long.class);
+            doctors = jdbc.queryForList("SELECT id FROM users WHERE roles = 'DOCTOR'", Long.class);
+            pets = jdbc.queryForList("SELECT id FROM pet ORDER BY id LIMIT 1000", Long.class);
+            services = jdbc.queryForList("SELECT id FROM services", Long.class);
+            emails = jdbc.queryForList("SELECT email FROM users ORDER BY id LIMIT 1000", String.class);
+            phones = jdbc.queryForList("SELECT phone FROM users WHERE phone IS NOT NULL ORDER BY id LIMIT 1000", String.class);
+        }
+
+        <T> T pick(List<T> values, SplittableRandom random) {
+            return values.get(random.nextInt(values.size()));
+        }
+    }
+}
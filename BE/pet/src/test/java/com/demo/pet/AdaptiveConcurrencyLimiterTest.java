@@ -0,0 +1,201 @@
+package com.demo.pet;
+
+import com.demo.pet.resilience.AdaptiveConcurrencyFilter;
+import com.demo.pet.resilience.AdaptiveConcurrencyLimiter;
+import com.demo.pet.resilience.AdaptiveConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Min 5, max 40, NORMAL được 90% và LOW 60% của limit
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(meterRegistry, initialLimit, 5, 40, 1.5, 0.2, 0.9, 0.6);
+    }
+
+    // Một mẫu RTT khi hệ thống đang chạy sát limit
+    private static void sample(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        assertTrue(limiter.tryAcquire(Priority.HIGH));
+        limiter.release(rttNanos, limiter.getLimit());
+    }
+
+    private double rejected(Priority priority) {
+        return meterRegistry.get("concurrency.limit.rejected")
+                .tag("priority", priority.name().toLowerCase()).counter().count();
+    }
+
+    @Test
+    void steadyLatency_shouldGrowTheLimitUpToMax() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+
+        int previous = limiter.getLimit();
+        for (int i = 0; i < 200; i++) {
+            sample(limiter, FAST);
+            assertTrue(limiter.getLimit() >= previous, "limit dropped at sample " + i);
+            assertTrue(limiter.getLimit() <= 40);
+            previous = limiter.getLimit();
+        }
+
+        assertEquals(40, limiter.getLimit());
+        assertEquals(40, meterRegistry.get("concurrency.limit").gauge().value());
+    }
+
+    @Test
+    void risingLatency_shouldShrinkTheLimitDownToMin_thenRecover() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        for (int i = 0; i < 200; i++) {
+            sample(limiter, FAST);
+        }
+        assertEquals(40, limiter.getLimit());
+
+        // DB chậm lại 10 lần: RTT ngắn hạn vượt xa baseline dài hạn
+        int previous = limiter.getLimit();
+        for (int i = 0; i < 60; i++) {
+            sample(limiter, SLOW);
+            assertTrue(limiter.getLimit() <= previous, "limit grew at sample " + i);
+            assertTrue(limiter.getLimit() >= 5);
+            previous = limiter.getLimit();
+        }
+        assertEquals(5, limiter.getLimit());
+
+        for (int i = 0; i < 200; i++) {
+            sample(limiter, FAST);
+        }
+        assertEquals(40, limiter.getLimit());
+    }
+
+    @Test
+    void samplesFarBelowTheLimit_shouldNotMoveIt() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+
+        // Chỉ 1 request đang chạy: độ trễ không nói gì về limit
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire(Priority.NORMAL));
+            limiter.release(i % 2 == 0 ? FAST : SLOW, 1);
+        }
+
+        assertEquals(20, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void lowPriority_shouldBeShedFirst() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        for (int i = 0; i < 6; i++) {
+            assertTrue(limiter.tryAcquire(Priority.LOW));
+        }
+        assertFalse(limiter.tryAcquire(Priority.LOW));
+
+        // Phần còn lại để dành cho NORMAL (9) và HIGH (10)
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(Priority.NORMAL));
+        }
+        assertFalse(limiter.tryAcquire(Priority.NORMAL));
+        assertTrue(limiter.tryAcquire(Priority.HIGH));
+        assertFalse(limiter.tryAcquire(Priority.HIGH));
+
+        assertEquals(10, limiter.getInFlight());
+        assertEquals(1, rejected(Priority.LOW));
+        assertEquals(1, rejected(Priority.NORMAL));
+        assertEquals(1, rejected(Priority.HIGH));
+    }
+
+    @Test
+    void shrunkLimit_shouldShedLowPriorityWhileHighStillGetsIn() {
+        AdaptiveConcurrencyLimiter limiter = limiter(40);
+        for (int i = 0; i < 20; i++) {
+            sample(limiter, FAST);
+        }
+        for (int i = 0; i < 60; i++) {
+            sample(limiter, SLOW);
+        }
+        assertEquals(5, limiter.getLimit());
+
+        // Limit 5: LOW được 3 chỗ, HIGH được cả 5
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(Priority.HIGH));
+        }
+        assertFalse(limiter.tryAcquire(Priority.LOW));
+        assertTrue(limiter.tryAcquire(Priority.HIGH));
+    }
+
+    @Test
+    void filter_shouldAnswer503ForLowPriorityRoutes_whileHigherOnesPass() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+        AdaptiveConcurrencyFilter filter = new AdaptiveConcurrencyFilter(limiter,
+                List.of("POST /api/auth/login"), List.of("GET /api/bookings", "/api/reports/**"));
+        for (int i = 0; i < 6; i++) {
+            limiter.tryAcquire(Priority.HIGH);
+        }
+        AtomicInteger passed = new AtomicInteger();
+        FilterChain chain = (request, response) -> passed.incrementAndGet();
+
+        MockHttpServletResponse low = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/bookings"), low, chain);
+        MockHttpServletResponse report = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/reports/monthly"), report, chain);
+        MockHttpServletResponse normal = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/bookings"), normal, chain);
+        MockHttpServletResponse high = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/auth/login"), high, chain);
+
+        assertEquals(503, low.getStatus());
+        assertEquals("1", low.getHeader("Retry-After"));
+        assertEquals(503, report.getStatus());
+        assertEquals(200, normal.getStatus());
+        assertEquals(200, high.getStatus());
+        assertEquals(2, passed.get());
+        assertEquals(2, rejected(Priority.LOW));
+        assertEquals(6, limiter.getInFlight());
+    }
+
+    @Test
+    void filter_shouldReleaseTheSlotWhenTheChainThrows() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+        AdaptiveConcurrencyFilter filter = new AdaptiveConcurrencyFilter(limiter, List.of(), List.of());
+
+        assertThrows(ServletException.class, () -> filter.doFilter(request("GET", "/api/pets"),
+                new MockHttpServletResponse(), (request, response) -> {
+                    throw new ServletException("boom");
+                }));
+
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void filter_shouldSkipNonApiPaths() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+        AdaptiveConcurrencyFilter filter = new AdaptiveConcurrencyFilter(limiter, List.of(), List.of("/**"));
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire(Priority.HIGH);
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/actuator/health"), response, (request, res) -> { });
+
+        assertEquals(200, response.getStatus());
+        assertEquals(0, rejected(Priority.LOW));
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+}
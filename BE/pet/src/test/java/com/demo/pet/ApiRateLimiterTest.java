@@ -0,0 +1,180 @@
+package com.demo.pet;
+
+import com.demo.pet.resilience.ApiRateLimitFilter;
+import com.demo.pet.resilience.ApiRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Gọi thẳng TokenBucket với đồng hồ giả
+class ApiRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static ApiRateLimiter.TokenBucket bucket(int capacity, double refillPerSecond) {
+        return new ApiRateLimiter.TokenBucket(new ApiRateLimiter.Policy(capacity, refillPerSecond), 0);
+    }
+
+    // Refill rất chậm: trong thời gian chạy test bucket không tự đầy lại
+    private ApiRateLimiter limiter(int maxEntries, int anonymousCapacity) {
+        return new ApiRateLimiter(meterRegistry, true, maxEntries, 20, 5, 60, 20, anonymousCapacity, 0.001);
+    }
+
+    @Test
+    void fullBucket_shouldAllowBurstUpToCapacity_thenAskToWait() {
+        ApiRateLimiter.TokenBucket bucket = bucket(10, 5);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, bucket.tryConsume(0));
+        }
+
+        // 5 token/s: một token sau 200 ms
+        assertEquals(200, bucket.tryConsume(0));
+    }
+
+    @Test
+    void refill_shouldAddTokensInProportionToElapsedTime() {
+        ApiRateLimiter.TokenBucket bucket = bucket(2, 5);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        // Nửa token sau 100 ms, còn chờ 100 ms
+        assertEquals(100, bucket.tryConsume(100));
+        assertEquals(0, bucket.tryConsume(200));
+        assertEquals(200, bucket.tryConsume(200));
+
+        // Lượt bị từ chối không tiêu token: 400 ms sau lần lấy cuối có đủ hai token
+        assertEquals(0, bucket.tryConsume(600));
+        assertEquals(0, bucket.tryConsume(600));
+        assertEquals(200, bucket.tryConsume(600));
+    }
+
+    @Test
+    void fractionalRefill_shouldRoundTheWaitUp() {
+        ApiRateLimiter.TokenBucket bucket = bucket(1, 3);
+        bucket.tryConsume(0);
+
+        // 1000 / 3 = 333.3 ms
+        assertEquals(334, bucket.tryConsume(0));
+    }
+
+    @Test
+    void idleBucket_shouldNotRefillBeyondCapacity() {
+        ApiRateLimiter.TokenBucket bucket = bucket(3, 5);
+        bucket.tryConsume(0);
+        assertFalse(bucket.isFull(0));
+
+        long muchLater = 3_600_000;
+        assertTrue(bucket.isFull(muchLater));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryConsume(muchLater));
+        }
+        assertEquals(200, bucket.tryConsume(muchLater));
+    }
+
+    @Test
+    void earlierClock_shouldNotMoveRefillTimeBackwards() {
+        ApiRateLimiter.TokenBucket bucket = bucket(2, 5);
+        bucket.tryConsume(1000);
+        bucket.tryConsume(1000);
+
+        // Thread khác đọc đồng hồ sớm hơn: không được tính thời gian đó thành token mới
+        assertEquals(200, bucket.tryConsume(900));
+        assertEquals(200, bucket.tryConsume(1000));
+    }
+
+    @Test
+    void policy_shouldRejectCapacityOutsideTheTokenBits() {
+        assertThrows(IllegalArgumentException.class, () -> new ApiRateLimiter.Policy(0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ApiRateLimiter.Policy(ApiRateLimiter.TokenBucket.MAX_TOKENS + 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ApiRateLimiter.Policy(10, 0));
+
+        ApiRateLimiter.TokenBucket largest = bucket(ApiRateLimiter.TokenBucket.MAX_TOKENS, 1);
+        for (int i = 0; i < ApiRateLimiter.TokenBucket.MAX_TOKENS; i++) {
+            assertEquals(0, largest.tryConsume(0));
+        }
+        assertEquals(1000, largest.tryConsume(0));
+    }
+
+    @Test
+    void rejectedRequest_shouldGet429WithRetryAfterInWholeSeconds() throws Exception {
+        // 1 token, 0.001 token/s: chờ 1000 s
+        ApiRateLimitFilter filter = new ApiRateLimitFilter(limiter(100, 1));
+        AtomicInteger passed = new AtomicInteger();
+        FilterChain chain = (request, response) -> passed.incrementAndGet();
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(request("/api/services"), first, chain);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(request("/api/services"), second, chain);
+
+        assertEquals(1, passed.get());
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertEquals("1000", second.getHeader("Retry-After"));
+        assertTrue(second.getContentAsString().contains("\"retry_after_seconds\":1000"));
+        assertEquals(1, meterRegistry.get("ratelimit.rejected").tag("role", "anonymous").counter().count());
+    }
+
+    @Test
+    void bucketsPerRoute_shouldNotShareTokens() {
+        ApiRateLimiter limiter = limiter(100, 1);
+
+        assertEquals(0, limiter.tryConsume(null, null, "10.0.0.1", "GET /api/services"));
+        assertTrue(limiter.tryConsume(null, null, "10.0.0.1", "GET /api/services") > 0);
+        assertEquals(0, limiter.tryConsume(null, null, "10.0.0.1", "GET /api/cages"));
+        assertEquals(0, limiter.tryConsume(null, null, "10.0.0.2", "GET /api/services"));
+    }
+
+    @Test
+    void fullTable_shouldLetNewCallersThroughUntracked() {
+        ApiRateLimiter limiter = limiter(1, 1);
+        assertEquals(0, limiter.tryConsume(null, null, "10.0.0.1", "GET /api/services"));
+        assertTrue(limiter.tryConsume(null, null, "10.0.0.1", "GET /api/services") > 0);
+
+        // Bảng đầy và bucket duy nhất chưa đầy lại: sweep không xóa được gì
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryConsume(null, null, "10.0.0.2", "GET /api/services"));
+        }
+
+        assertEquals(5, meterRegistry.get("ratelimit.untracked").counter().count());
+        assertEquals(1, meterRegistry.get("ratelimit.tracked.buckets").gauge().value());
+        // Caller đã được theo dõi vẫn bị giới hạn
+        assertTrue(limiter.tryConsume(null, null, "10.0.0.1", "GET /api/services") > 0);
+    }
+
+    @Test
+    void fullTable_shouldMakeRoomByDroppingRefilledBuckets() {
+        // Refill 1000 token/s: bucket cũ đầy lại gần như ngay, sweep dọn được chỗ
+        ApiRateLimiter limiter = new ApiRateLimiter(meterRegistry, true, 1, 20, 5, 60, 20, 1, 1000);
+        assertEquals(0, limiter.tryConsume(null, null, "10.0.0.1", "GET /api/services"));
+        sleepPastRefill();
+
+        assertEquals(0, limiter.tryConsume(null, null, "10.0.0.2", "GET /api/services"));
+
+        assertEquals(0, meterRegistry.get("ratelimit.untracked").counter().count());
+        assertEquals(1, meterRegistry.get("ratelimit.tracked.buckets").gauge().value());
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+    private static void sleepPastRefill() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
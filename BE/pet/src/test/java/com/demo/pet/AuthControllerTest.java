@@ -1,5 +1,6 @@
 package com.demo.pet;
 
+import com.demo.pet.controllers.AuthController;
 import com.demo.pet.config.CustomForSercurityConfig.CustomUserDetailsService;
 import com.demo.pet.dtos.UserDTO;
 import com.demo.pet.services.UserService;
@@ -1,6 +1,8 @@
 package com.demo.pet;
 
+import com.demo.pet.controllers.CageController;
 import com.demo.pet.dtos.CageDTO;
+import com.demo.pet.dtos.subDTO.CageTransferDTO;
 import com.demo.pet.services.CageService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -115,6 +117,17 @@ class CageControllerTest {
         verify(cageService).deleteCage(1L);
     }
 
+    @Test
+    void transferPet_shouldReturnSourceAndTargetCages() {
+        CageTransferDTO transfer = new CageTransferDTO(2L, 1L, 1L);
+        when(cageService.transferPet(transfer)).thenReturn(cageDTOList);
+
+        ResponseEntity<List<CageDTO>> response = cageController.transferPet(transfer);
+
+        assertEquals(cageDTOList, response.getBody());
+        verify(cageService).transferPet(transfer);
+    }
+
     @Test
     void getCagesByStatus_shouldReturnFilteredCages() {
         when(cageService.getCagesByStatus("AVAILABLE")).thenReturn(Arrays.asList(cageDTO));
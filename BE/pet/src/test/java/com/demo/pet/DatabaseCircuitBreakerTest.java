@@ -0,0 +1,237 @@
+package com.demo.pet;
+
+import com.demo.pet.resilience.CircuitBreakerDataSource;
+import com.demo.pet.resilience.CircuitBreakerPostProcessor;
+import com.demo.pet.resilience.DatabaseCircuitBreaker;
+import com.demo.pet.resilience.DatabaseUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DatabaseCircuitBreakerTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    // Pool đầy: Hikari hết thời gian chờ nhưng database vẫn trả lời
+    private static SQLTransientConnectionException poolExhausted() {
+        return new SQLTransientConnectionException(
+                "HikariPool-reporting - Connection is not available, request timed out after 2000ms "
+                        + "(total=4, active=4, idle=0, waiting=3)", "08001");
+    }
+
+    // Pool không mở được connection: lỗi kết nối cuối cùng nằm ở cause
+    private static SQLTransientConnectionException databaseDown() {
+        return new SQLTransientConnectionException(
+                "HikariPool-transactional - Connection is not available, request timed out after 5000ms.", "08S01",
+                new SQLNonTransientConnectionException("Communications link failure", "08S01"));
+    }
+
+    private static DatabaseCircuitBreaker breaker(int windowSize, Duration slowCallThreshold, int halfOpenCalls) {
+        return new DatabaseCircuitBreaker(new SimpleMeterRegistry(), true, windowSize, windowSize, 0.5,
+                slowCallThreshold, 0.5, Duration.ZERO, halfOpenCalls);
+    }
+
+    private static DataSource healthyDatabase() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        return target;
+    }
+
+    private static void fail(DatabaseCircuitBreaker breaker, int times) {
+        for (int i = 0; i < times; i++) {
+            breaker.acquirePermission();
+            breaker.onResult(MILLIS, new DataAccessResourceFailureException("connection reset"));
+        }
+    }
+
+    @Test
+    void failures_shouldOpen_thenProbeHalfOpens_thenTrialCallsClose() throws SQLException {
+        DatabaseCircuitBreaker breaker = breaker(4, Duration.ofSeconds(2), 2);
+        new CircuitBreakerDataSource(healthyDatabase(), breaker);
+
+        fail(breaker, 4);
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(DatabaseUnavailableException.class, breaker::acquirePermission);
+
+        breaker.probe();
+        assertEquals(DatabaseCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // Chỉ half-open-calls call được đi qua
+        breaker.acquirePermission();
+        breaker.acquirePermission();
+        assertThrows(DatabaseUnavailableException.class, breaker::acquirePermission);
+
+        breaker.onResult(MILLIS, null);
+        assertEquals(DatabaseCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(MILLIS, null);
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.acquirePermission();
+    }
+
+    @Test
+    void failedTrialCall_shouldReopen() throws SQLException {
+        DatabaseCircuitBreaker breaker = breaker(4, Duration.ofSeconds(2), 2);
+        new CircuitBreakerDataSource(healthyDatabase(), breaker);
+        fail(breaker, 4);
+        breaker.probe();
+
+        breaker.acquirePermission();
+        breaker.onResult(MILLIS, new DataAccessResourceFailureException("connection reset"));
+
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void poolTimeoutDuringTrial_shouldHandThePermitBack() throws SQLException {
+        DatabaseCircuitBreaker breaker = breaker(4, Duration.ofSeconds(2), 2);
+        DataSource target = healthyDatabase();
+        DataSource dataSource = new CircuitBreakerDataSource(target, breaker);
+        fail(breaker, 4);
+        breaker.probe();
+
+        // Backlog sau sự cố làm pool đầy: cả hai trial call hết thời gian chờ connection
+        when(target.getConnection()).thenThrow(poolExhausted());
+        for (int i = 0; i < 2; i++) {
+            breaker.acquirePermission();
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+            breaker.onResult(MILLIS, new CannotCreateTransactionException("Could not open JPA EntityManager",
+                    poolExhausted()));
+        }
+        assertEquals(DatabaseCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // Permit đã được trả, mỗi cái đúng một lần
+        breaker.acquirePermission();
+        breaker.acquirePermission();
+        assertThrows(DatabaseUnavailableException.class, breaker::acquirePermission);
+        breaker.onResult(MILLIS, null);
+        breaker.onResult(MILLIS, null);
+
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void failingProbe_shouldStayOpen() throws SQLException {
+        DatabaseCircuitBreaker breaker = breaker(4, Duration.ofSeconds(2), 2);
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLNonTransientConnectionException("Connection refused"));
+        new CircuitBreakerDataSource(target, breaker);
+        fail(breaker, 4);
+
+        breaker.probe();
+
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void slowCalls_shouldOpen() {
+        DatabaseCircuitBreaker breaker = breaker(4, Duration.ofMillis(100), 2);
+
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(200 * MILLIS, null);
+        }
+
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void businessErrors_shouldNotOpen() {
+        DatabaseCircuitBreaker breaker = breaker(4, Duration.ofSeconds(2), 2);
+
+        for (int i = 0; i < 10; i++) {
+            breaker.onResult(MILLIS, new DataIntegrityViolationException("duplicate key"));
+        }
+
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void isDatabaseFailure_shouldClassifyPoolAndConnectionErrors() {
+        DatabaseCircuitBreaker breaker = breaker(4, Duration.ofSeconds(2), 2);
+
+        assertFalse(breaker.isDatabaseFailure(poolExhausted()));
+        assertFalse(breaker.isDatabaseFailure(new CannotCreateTransactionException("Could not open JPA EntityManager",
+                poolExhausted())));
+        assertFalse(breaker.isDatabaseFailure(new DataIntegrityViolationException("duplicate key")));
+        assertFalse(breaker.isDatabaseFailure(new IllegalArgumentException("Booking not found")));
+
+        assertTrue(breaker.isDatabaseFailure(databaseDown()));
+        assertTrue(breaker.isDatabaseFailure(new CannotCreateTransactionException("Could not open JPA EntityManager",
+                databaseDown())));
+        assertTrue(breaker.isDatabaseFailure(new SQLNonTransientConnectionException("Connection refused")));
+        assertTrue(breaker.isDatabaseFailure(new SQLTimeoutException("Statement cancelled")));
+    }
+
+    @Test
+    void poolTimeouts_shouldNotOpen_butUnreachableDatabaseShould() throws SQLException {
+        DatabaseCircuitBreaker breaker = breaker(4, Duration.ofSeconds(2), 2);
+        DataSource busyPool = mock(DataSource.class);
+        when(busyPool.getConnection()).thenThrow(poolExhausted());
+        DataSource dataSource = new CircuitBreakerDataSource(busyPool, breaker);
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        }
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, breaker.getState());
+
+        DataSource downPool = mock(DataSource.class);
+        when(downPool.getConnection()).thenThrow(databaseDown());
+        DataSource downDataSource = new CircuitBreakerDataSource(downPool, breaker);
+        // Pool đầy không được ghi vào cửa sổ, cần đủ minimum-calls lỗi kết nối
+        for (int i = 0; i < 4; i++) {
+            assertThrows(SQLTransientConnectionException.class, downDataSource::getConnection);
+        }
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    interface LookupRepository extends Repository<Object, Long> {
+        void lookup() throws Exception;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void waitingForPooledConnection_shouldNotCountAsSlowCall() throws Exception {
+        DatabaseCircuitBreaker breaker = breaker(4, Duration.ofMillis(20), 2);
+        ObjectProvider<DatabaseCircuitBreaker> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(breaker);
+        CircuitBreakerPostProcessor postProcessor = new CircuitBreakerPostProcessor(provider);
+
+        // Pool chậm trả connection, câu lệnh thì nhanh
+        DataSource slowPool = mock(DataSource.class);
+        when(slowPool.getConnection()).thenAnswer(invocation -> {
+            Thread.sleep(40);
+            return mock(Connection.class);
+        });
+        DataSource dataSource = (DataSource) postProcessor.postProcessAfterInitialization(slowPool, "dataSource");
+        LookupRepository waitsForPool = (LookupRepository) postProcessor.postProcessAfterInitialization(
+                (LookupRepository) () -> dataSource.getConnection().close(), "lookupRepository");
+
+        for (int i = 0; i < 6; i++) {
+            waitsForPool.lookup();
+        }
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, breaker.getState());
+
+        LookupRepository slowStatement = (LookupRepository) postProcessor.postProcessAfterInitialization(
+                (LookupRepository) () -> Thread.sleep(40), "slowRepository");
+        for (int i = 0; i < 2; i++) {
+            slowStatement.lookup();
+        }
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
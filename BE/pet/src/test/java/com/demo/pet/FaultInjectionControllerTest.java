@@ -0,0 +1,72 @@
+package com.demo.pet;
+
+import com.demo.pet.controllers.FaultInjectionController;
+import com.demo.pet.dtos.subDTO.FaultProfileDTO;
+import com.demo.pet.resilience.FaultInjector;
+import com.demo.pet.resilience.FaultProfile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FaultInjectionControllerTest {
+
+    @Mock
+    private FaultInjector faultInjector;
+
+    @InjectMocks
+    private FaultInjectionController faultInjectionController;
+
+    @Test
+    void getFaults_shouldReturnCurrentProfile() {
+        when(faultInjector.getProfile()).thenReturn(
+                new FaultProfile(200, 50, 0.1, 0, 0, Pattern.compile("service_booking")));
+
+        ResponseEntity<FaultProfileDTO> response = faultInjectionController.getFaults();
+
+        assertEquals(200, response.getBody().getStatementLatencyMs());
+        assertEquals("service_booking", response.getBody().getSqlPattern());
+        assertTrue(response.getBody().isActive());
+    }
+
+    @Test
+    void setFaults_shouldApplyProfile() {
+        FaultProfileDTO request = new FaultProfileDTO(100, 0, 0.5, 30, 0, "select", false);
+        when(faultInjector.setProfile(any(FaultProfile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ResponseEntity<FaultProfileDTO> response = faultInjectionController.setFaults(request);
+
+        assertEquals(100, response.getBody().getStatementLatencyMs());
+        assertEquals(0.5, response.getBody().getStatementFailureRate());
+        assertEquals(30, response.getBody().getAcquireDelayMs());
+        assertTrue(response.getBody().isActive());
+        verify(faultInjector).setProfile(any(FaultProfile.class));
+    }
+
+    @Test
+    void setFaults_shouldRejectInvalidRate() {
+        FaultProfileDTO request = new FaultProfileDTO(0, 0, 1.5, 0, 0, null, false);
+
+        assertThrows(IllegalArgumentException.class, () -> faultInjectionController.setFaults(request));
+        verify(faultInjector, never()).setProfile(any());
+    }
+
+    @Test
+    void resetFaults_shouldTurnFaultsOff() {
+        when(faultInjector.reset()).thenReturn(FaultProfile.NONE);
+
+        ResponseEntity<FaultProfileDTO> response = faultInjectionController.resetFaults();
+
+        assertFalse(response.getBody().isActive());
+        verify(faultInjector).reset();
+    }
+}
@@ -0,0 +1,138 @@
+package com.demo.pet;
+
+import com.demo.pet.config.GlobalExceptionHandler;
+import com.demo.pet.resilience.RequestDeadline;
+import org.hibernate.TransactionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.jpa.JpaSystemException;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @AfterEach
+    void clearDeadline() {
+        RequestDeadline.clear();
+    }
+
+    private static DataIntegrityViolationException violation(String message, String sqlState, int errorCode) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException(message, sqlState, errorCode));
+    }
+
+    @Test
+    void unknownUserId_onBaselinedMySqlSchema_shouldReturnNotFound() {
+        // Tên constraint do Hibernate ddl-auto sinh ra, không phải tên trong V1
+        DataIntegrityViolationException e = violation(
+                "Cannot add or update a child row: a foreign key constraint fails (`test_MedicalRecord`.`service_booking`, "
+                        + "CONSTRAINT `FKt3w9ltn327g2ogxprap5t8lg7` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`))",
+                "23000", 1452);
+
+        ResponseEntity<Map<String, Object>> response = handler.handleDataIntegrityViolation(e);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("User not found with the given user_id", response.getBody().get("message"));
+    }
+
+    @Test
+    void unknownServiceId_onFlywaySchema_shouldReturnNotFound() {
+        DataIntegrityViolationException e = violation(
+                "Cannot add or update a child row: a foreign key constraint fails (`pet`.`service_booking`, "
+                        + "CONSTRAINT `fk_service_booking_service` FOREIGN KEY (`service_id`) REFERENCES `services` (`id`))",
+                "23000", 1452);
+
+        ResponseEntity<Map<String, Object>> response = handler.handleDataIntegrityViolation(e);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("Service not found with the given service_id", response.getBody().get("message"));
+    }
+
+    @Test
+    void unknownPetId_onH2_shouldReturnNotFound() {
+        DataIntegrityViolationException e = violation(
+                "Referential integrity constraint violation: \"FKIWWRO9YWBOGPXKA5DBF1KCRA0: PUBLIC.CAGE FOREIGN KEY(PET_ID) "
+                        + "REFERENCES PUBLIC.PET(ID) (CAST(999 AS BIGINT))\"",
+                "23506", 23506);
+
+        ResponseEntity<Map<String, Object>> response = handler.handleDataIntegrityViolation(e);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("Pet not found with the given pet_id", response.getBody().get("message"));
+    }
+
+    @Test
+    void parentStillReferenced_shouldStayBadRequest() {
+        // 1451: xóa dòng cha còn được tham chiếu, không phải id sai
+        DataIntegrityViolationException e = violation(
+                "Cannot delete or update a parent row: a foreign key constraint fails (`pet`.`pet`, "
+                        + "CONSTRAINT `FKhg3enfwsufxjb6enqetxx2ku0` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`))",
+                "23000", 1451);
+
+        ResponseEntity<Map<String, Object>> response = handler.handleDataIntegrityViolation(e);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void duplicateKey_shouldStayBadRequest() {
+        DataIntegrityViolationException e = violation(
+                "Duplicate entry 'a@example.com' for key 'users.UK6dotkott2kjsp8vw4d0m25fb7'", "23000", 1062);
+
+        ResponseEntity<Map<String, Object>> response = handler.handleDataIntegrityViolation(e);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void businessError_afterDeadlinePassed_shouldStayBadRequest() {
+        RequestDeadline.start(Duration.ZERO);
+
+        ResponseEntity<Map<String, Object>> response =
+                handler.handleRuntimeException(new RuntimeException("Booking not found with id: 9"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Booking not found with id: 9", response.getBody().get("message"));
+    }
+
+    @Test
+    void wrappedHibernateTransactionTimeout_shouldReturnGatewayTimeout() {
+        RuntimeException e = new JpaSystemException(new TransactionException("transaction timeout expired"));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, handler.handleRuntimeException(e).getStatusCode());
+    }
+
+    @Test
+    void timeoutsDeepInTheCauseChain_shouldReturnGatewayTimeout() {
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, handler.handleRuntimeException(
+                new IllegalStateException("load failed", new SQLTimeoutException("Statement cancelled"))).getStatusCode());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, handler.handleRuntimeException(
+                new RuntimeException(new QueryTimeoutException("query timed out"))).getStatusCode());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, handler.handleRuntimeException(
+                new RuntimeException(new TransactionTimedOutException("deadline passed"))).getStatusCode());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, handler.handleRuntimeException(
+                new RuntimeException(new jakarta.persistence.LockTimeoutException("lock wait timeout"))).getStatusCode());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, handler.handleRuntimeException(
+                new RuntimeException(new org.hibernate.exception.LockTimeoutException("lock wait timeout",
+                        new SQLTimeoutException()))).getStatusCode());
+    }
+
+    @Test
+    void otherHibernateTransactionErrors_shouldStayBadRequest() {
+        RuntimeException e = new JpaSystemException(new TransactionException("Unable to commit against JDBC Connection"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, handler.handleRuntimeException(e).getStatusCode());
+    }
+}
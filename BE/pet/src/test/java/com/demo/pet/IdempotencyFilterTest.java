@@ -0,0 +1,139 @@
+package com.demo.pet;
+
+import com.demo.pet.idempotency.IdempotencyFilter;
+import com.demo.pet.idempotency.IdempotencyStore;
+import com.demo.pet.models.IdempotencyRecord;
+import com.demo.pet.repositories.IdempotencyRecordRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyFilterTest {
+
+    private final IdempotencyRecordRepo recordRepo = mock(IdempotencyRecordRepo.class);
+    private final IdempotencyStore store = new IdempotencyStore(recordRepo, new SimpleMeterRegistry(), true,
+            List.of("/api/bookings"), Duration.ofHours(24), Duration.ofSeconds(30), 100);
+    private final IdempotencyFilter filter = new IdempotencyFilter(store);
+    private final AtomicInteger controllerCalls = new AtomicInteger();
+
+    private static MockHttpServletRequest post(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/bookings");
+        request.setServletPath("/api/bookings");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    // Controller giả: đọc lại body rồi trả status cho trước
+    private FilterChain controller(int status) {
+        return (request, response) -> {
+            controllerCalls.incrementAndGet();
+            String body = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            ((HttpServletResponse) response).setStatus(status);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"echo\":" + body + "}");
+        };
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void firstRequest_shouldRunAndStoreResponse_retryShouldReplay() throws Exception {
+        MockHttpServletResponse first = send(post("k-1", "{\"a\":1}"), controller(201));
+        MockHttpServletResponse retry = send(post("k-1", "{\"a\":1}"), controller(201));
+
+        assertEquals(1, controllerCalls.get());
+        assertEquals(201, first.getStatus());
+        assertEquals("{\"echo\":{\"a\":1}}", first.getContentAsString());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        verify(recordRepo).complete(anyString(), eq(201), anyString(), anyString());
+        verify(recordRepo, never()).releaseClaim(anyString());
+    }
+
+    @Test
+    void sameKeyWithDifferentBody_shouldBeUnprocessable() throws Exception {
+        send(post("k-1", "{\"a\":1}"), controller(201));
+
+        MockHttpServletResponse response = send(post("k-1", "{\"a\":2}"), controller(201));
+
+        assertEquals(422, response.getStatus());
+        assertEquals(1, controllerCalls.get());
+    }
+
+    @Test
+    void retryWhileFirstAttemptRuns_shouldConflict() throws Exception {
+        when(recordRepo.insertClaim(anyString(), anyString(), anyString(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(recordRepo.findById(anyString())).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .status(IdempotencyRecord.Status.IN_PROGRESS).requestHash("other")
+                .lockedUntil(LocalDateTime.now().plusSeconds(20)).expiresAt(LocalDateTime.now().plusHours(24))
+                .build()));
+
+        MockHttpServletResponse response = send(post("k-1", "{\"a\":1}"), controller(201));
+
+        assertEquals(409, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertEquals(0, controllerCalls.get());
+    }
+
+    @Test
+    void serverError_shouldReleaseTheKey() throws Exception {
+        MockHttpServletResponse response = send(post("k-1", "{\"a\":1}"), controller(503));
+
+        assertEquals(503, response.getStatus());
+        verify(recordRepo).releaseClaim(anyString());
+        verify(recordRepo, never()).complete(anyString(), anyInt(), any(), any());
+    }
+
+    @Test
+    void failingToStoreResponse_shouldKeepTheClaimAndStillAnswer() throws Exception {
+        when(recordRepo.complete(anyString(), anyInt(), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        MockHttpServletResponse response = send(post("k-1", "{\"a\":1}"), controller(201));
+
+        // Booking đã được tạo: không xóa claim, retry sẽ nhận 409 thay vì tạo booking thứ hai
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"echo\":{\"a\":1}}", response.getContentAsString());
+        verify(recordRepo, never()).releaseClaim(anyString());
+    }
+
+    @Test
+    void requestWithoutKey_shouldPassThrough() throws Exception {
+        MockHttpServletRequest request = post("k-1", "{\"a\":1}");
+        request.removeHeader(IdempotencyFilter.HEADER);
+
+        send(request, controller(201));
+        send(request, controller(201));
+
+        assertEquals(2, controllerCalls.get());
+        verifyNoInteractions(recordRepo);
+    }
+}
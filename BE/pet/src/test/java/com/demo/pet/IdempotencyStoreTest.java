@@ -0,0 +1,150 @@
+package com.demo.pet;
+
+import com.demo.pet.idempotency.IdempotencyStore;
+import com.demo.pet.models.IdempotencyRecord;
+import com.demo.pet.repositories.IdempotencyRecordRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyStoreTest {
+
+    private static final String KEY = "key-hash";
+    private static final String ROUTE = "POST /api/bookings";
+
+    private final IdempotencyRecordRepo recordRepo = mock(IdempotencyRecordRepo.class);
+
+    private IdempotencyStore store(Duration ttl) {
+        return new IdempotencyStore(recordRepo, new SimpleMeterRegistry(), true, List.of("/api/bookings"),
+                ttl, Duration.ofSeconds(30), 100);
+    }
+
+    private void keyTaken() {
+        when(recordRepo.insertClaim(eq(KEY), anyString(), anyString(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+    }
+
+    private static IdempotencyRecord record(IdempotencyRecord.Status status, LocalDateTime lockedUntil,
+                                            LocalDateTime expiresAt) {
+        return IdempotencyRecord.builder()
+                .recordKey(KEY).route(ROUTE).requestHash("hash-a").status(status)
+                .responseStatus(status == IdempotencyRecord.Status.COMPLETED ? 201 : null)
+                .contentType("application/json")
+                .responseBody(status == IdempotencyRecord.Status.COMPLETED ? "{\"id\":7}" : null)
+                .lockedUntil(lockedUntil).expiresAt(expiresAt)
+                .build();
+    }
+
+    @Test
+    void newKey_shouldBeAcquired() {
+        IdempotencyStore.Claim claim = store(Duration.ofHours(24)).claim(KEY, ROUTE, "hash-a");
+
+        assertInstanceOf(IdempotencyStore.Acquired.class, claim);
+        verify(recordRepo).insertClaim(eq(KEY), eq(ROUTE), eq("hash-a"), any(), any(), any());
+    }
+
+    @Test
+    void completedKey_shouldReplayFromDatabase_thenFromMemory() {
+        IdempotencyStore store = store(Duration.ofHours(24));
+        keyTaken();
+        when(recordRepo.findById(KEY)).thenReturn(Optional.of(
+                record(IdempotencyRecord.Status.COMPLETED, null, LocalDateTime.now().plusHours(1))));
+
+        IdempotencyStore.Existing first = assertInstanceOf(IdempotencyStore.Existing.class,
+                store.claim(KEY, ROUTE, "hash-a"));
+        IdempotencyStore.Existing second = assertInstanceOf(IdempotencyStore.Existing.class,
+                store.claim(KEY, ROUTE, "hash-a"));
+
+        assertEquals(201, first.response().status());
+        assertEquals("{\"id\":7}", new String(first.response().body(), StandardCharsets.UTF_8));
+        assertEquals("hash-a", first.requestHash());
+        assertEquals(first.response(), second.response());
+        verify(recordRepo, times(1)).findById(KEY);
+    }
+
+    @Test
+    void completedRequest_shouldBeReplayedWithoutTouchingTheDatabase() {
+        IdempotencyStore store = store(Duration.ofHours(24));
+        store.claim(KEY, ROUTE, "hash-a");
+        store.complete(KEY, "hash-a", new IdempotencyStore.Response(201, "application/json",
+                "{\"id\":7}".getBytes(StandardCharsets.UTF_8)));
+
+        IdempotencyStore.Existing existing = assertInstanceOf(IdempotencyStore.Existing.class,
+                store.claim(KEY, ROUTE, "hash-b"));
+
+        // Hash khác vẫn trả về Existing, filter so hash để trả 422
+        assertEquals("hash-a", existing.requestHash());
+        verify(recordRepo, times(1)).insertClaim(anyString(), anyString(), anyString(), any(), any(), any());
+        verify(recordRepo).complete(KEY, 201, "application/json", "{\"id\":7}");
+    }
+
+    @Test
+    void runningClaim_shouldBeBusy() {
+        keyTaken();
+        when(recordRepo.findById(KEY)).thenReturn(Optional.of(record(IdempotencyRecord.Status.IN_PROGRESS,
+                LocalDateTime.now().plusSeconds(20), LocalDateTime.now().plusHours(24))));
+
+        IdempotencyStore.Claim claim = store(Duration.ofHours(24)).claim(KEY, ROUTE, "hash-a");
+
+        assertInstanceOf(IdempotencyStore.Busy.class, claim);
+    }
+
+    @Test
+    void staleClaim_shouldBeTakenOver() {
+        keyTaken();
+        when(recordRepo.findById(KEY)).thenReturn(Optional.of(record(IdempotencyRecord.Status.IN_PROGRESS,
+                LocalDateTime.now().minusSeconds(5), LocalDateTime.now().plusHours(24))));
+        when(recordRepo.takeOverStaleClaim(eq(KEY), eq("hash-b"), any(), any())).thenReturn(1);
+
+        IdempotencyStore.Claim claim = store(Duration.ofHours(24)).claim(KEY, ROUTE, "hash-b");
+
+        assertInstanceOf(IdempotencyStore.Acquired.class, claim);
+    }
+
+    @Test
+    void expiredRecord_shouldBeDeletedAndClaimedAgain() {
+        when(recordRepo.insertClaim(eq(KEY), anyString(), anyString(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenReturn(1);
+        when(recordRepo.findById(KEY)).thenReturn(Optional.of(
+                record(IdempotencyRecord.Status.COMPLETED, null, LocalDateTime.now().minusMinutes(1))));
+        when(recordRepo.deleteIfExpired(eq(KEY), any())).thenReturn(1);
+
+        IdempotencyStore.Claim claim = store(Duration.ofHours(24)).claim(KEY, ROUTE, "hash-b");
+
+        assertInstanceOf(IdempotencyStore.Acquired.class, claim);
+        verify(recordRepo, times(2)).insertClaim(eq(KEY), anyString(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void expiredMemoryEntry_shouldNotBeReplayed() {
+        IdempotencyStore store = store(Duration.ZERO);
+        store.complete(KEY, "hash-a", new IdempotencyStore.Response(201, "application/json", new byte[0]));
+
+        IdempotencyStore.Claim claim = store.claim(KEY, ROUTE, "hash-a");
+
+        assertInstanceOf(IdempotencyStore.Acquired.class, claim);
+        verify(recordRepo).insertClaim(eq(KEY), anyString(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void release_shouldOnlyDropTheRunningClaim() {
+        store(Duration.ofHours(24)).release(KEY);
+
+        verify(recordRepo).releaseClaim(KEY);
+        verify(recordRepo, never()).complete(anyString(), anyInt(), any(), any());
+    }
+}
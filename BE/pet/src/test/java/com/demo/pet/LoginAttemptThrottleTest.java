@@ -0,0 +1,194 @@
+package com.demo.pet;
+
+import com.demo.pet.config.CustomForSercurityConfig.LoginAttemptThrottle;
+import com.demo.pet.config.CustomForSercurityConfig.LoginThrottleFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAttemptThrottleTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Username: chậm lại sau 3 lần sai, khóa sau 5; IP: chậm lại sau 4 lần sai, khóa sau 6
+    private LoginAttemptThrottle throttle(Duration window, int maxEntries, Duration baseDelay) {
+        return new LoginAttemptThrottle(meterRegistry, window, 3, maxEntries, 3, 5, 4, 6,
+                baseDelay, Duration.ofSeconds(30), Duration.ofMinutes(15));
+    }
+
+    private LoginAttemptThrottle throttle() {
+        return throttle(Duration.ofMinutes(15), 100, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void window_shouldOnlyCountFailuresOfTheLastBuckets() {
+        // 3 bucket x 1 s
+        LoginAttemptThrottle.AttemptWindow window = new LoginAttemptThrottle.AttemptWindow(3, 1000);
+
+        assertEquals(1, window.increment(0));
+        assertEquals(2, window.increment(500));
+        assertEquals(3, window.increment(1500));
+
+        // Bucket 3 dùng lại slot của bucket 0: hai lần sai đầu tiên rơi khỏi cửa sổ
+        assertEquals(2, window.increment(3000));
+        // Bucket 1 đã cũ hơn 3 bucket
+        assertEquals(2, window.increment(4500));
+        assertEquals(1, window.increment(10_000));
+    }
+
+    @Test
+    void window_shouldBecomeIdleOnceEveryBucketHasRolledOver() {
+        LoginAttemptThrottle.AttemptWindow window = new LoginAttemptThrottle.AttemptWindow(3, 1000);
+        window.increment(0);
+        window.increment(2500);
+
+        assertFalse(window.isIdle(2999));
+        // Bucket 2 còn trong cửa sổ đến hết bucket 4
+        assertFalse(window.isIdle(4999));
+        assertTrue(window.isIdle(5000));
+    }
+
+    @Test
+    void usernameFailures_shouldDelayThatAccountFromAnyIp() {
+        LoginAttemptThrottle throttle = throttle();
+        throttle.recordFailure("alice@example.com", "10.0.0.1");
+        throttle.recordFailure("alice@example.com", "10.0.0.2");
+        assertEquals(0, throttle.checkAllowed("alice@example.com", "10.0.0.3"));
+
+        throttle.recordFailure("alice@example.com", "10.0.0.3");
+
+        // Lần sai thứ 3: chờ base delay, tên đăng nhập không phân biệt hoa thường và khoảng trắng
+        long wait = throttle.checkAllowed(" Alice@Example.com ", "10.0.0.4");
+        assertTrue(wait > 0 && wait <= 1000, "wait was " + wait);
+        assertEquals(0, throttle.checkAllowed("bob@example.com", "10.0.0.3"));
+        assertEquals(1, meterRegistry.get("login.throttle.blocked").tag("scope", "username").counter().count());
+    }
+
+    @Test
+    void repeatedUsernameFailures_shouldDoubleTheDelay_thenLockOut() {
+        LoginAttemptThrottle throttle = throttle();
+        for (int i = 0; i < 4; i++) {
+            throttle.recordFailure("alice@example.com", "10.0.0." + i);
+        }
+        long wait = throttle.checkAllowed("alice@example.com", "10.0.0.9");
+        assertTrue(wait > 1000 && wait <= 2000, "wait was " + wait);
+
+        throttle.recordFailure("alice@example.com", "10.0.0.5");
+
+        wait = throttle.checkAllowed("alice@example.com", "10.0.0.9");
+        assertTrue(wait > Duration.ofMinutes(14).toMillis(), "wait was " + wait);
+        assertEquals(1, meterRegistry.get("login.throttle.lockouts").counter().count());
+    }
+
+    @Test
+    void success_shouldClearTheUsernameButNotTheIp() {
+        LoginAttemptThrottle throttle = throttle();
+        for (int i = 0; i < 4; i++) {
+            throttle.recordFailure("alice@example.com", "10.0.0.1");
+        }
+        assertTrue(throttle.checkAllowed("alice@example.com", "10.0.0.2") > 0);
+
+        throttle.recordSuccess("ALICE@example.com");
+
+        assertEquals(0, throttle.checkAllowed("alice@example.com", "10.0.0.2"));
+        assertTrue(throttle.checkAllowed("alice@example.com", "10.0.0.1") > 0);
+    }
+
+    @Test
+    void ipFailures_shouldDelayEveryUsernameFromThatIp() {
+        LoginAttemptThrottle throttle = throttle();
+        // Mỗi tên chỉ sai một lần, dưới ngưỡng của username
+        for (int i = 0; i < 4; i++) {
+            throttle.recordFailure("user" + i + "@example.com", "10.0.0.1");
+        }
+
+        assertTrue(throttle.checkAllowed("someone@example.com", "10.0.0.1") > 0);
+        assertEquals(0, throttle.checkAllowed("someone@example.com", "10.0.0.2"));
+        assertEquals(0, throttle.checkAllowed("user0@example.com", "10.0.0.2"));
+        assertEquals(1, meterRegistry.get("login.throttle.blocked").tag("scope", "ip").counter().count());
+    }
+
+    @Test
+    void blockedLogin_shouldGet429WithRetryAfterRoundedUpToSeconds() throws Exception {
+        // Base delay 1.5 s: Retry-After làm tròn lên 2
+        LoginAttemptThrottle throttle = throttle(Duration.ofMinutes(15), 100, Duration.ofMillis(1500));
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("alice@example.com", "10.0.0." + i);
+        }
+        LoginThrottleFilter filter = new LoginThrottleFilter(throttle, "/api/auth/login");
+        AtomicInteger passed = new AtomicInteger();
+        FilterChain chain = (request, response) -> passed.incrementAndGet();
+
+        MockHttpServletResponse blocked = new MockHttpServletResponse();
+        filter.doFilter(login("alice@example.com"), blocked, chain);
+        MockHttpServletResponse other = new MockHttpServletResponse();
+        filter.doFilter(login("bob@example.com"), other, chain);
+
+        assertEquals(429, blocked.getStatus());
+        assertEquals("2", blocked.getHeader("Retry-After"));
+        assertTrue(blocked.getContentAsString().contains("\"retry_after_seconds\":2"));
+        assertEquals(200, other.getStatus());
+        assertEquals(1, passed.get());
+    }
+
+    @Test
+    void lockedOutLogin_shouldGetRetryAfterOfTheLockout() throws Exception {
+        LoginAttemptThrottle throttle = throttle();
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("alice@example.com", "10.0.0." + i);
+        }
+        LoginThrottleFilter filter = new LoginThrottleFilter(throttle, "/api/auth/login");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(login("alice@example.com"), response, (req, res) -> fail("should be blocked"));
+
+        assertEquals(429, response.getStatus());
+        assertEquals(String.valueOf(Duration.ofMinutes(15).toSeconds()), response.getHeader("Retry-After"));
+    }
+
+    @Test
+    void fullTable_shouldLeaveNewUsernamesUntracked() {
+        LoginAttemptThrottle throttle = throttle(Duration.ofMinutes(15), 1, Duration.ofSeconds(1));
+        throttle.recordFailure("alice@example.com", null);
+
+        // Bảng đầy, cửa sổ của alice vẫn còn lần sai: sweep không xóa được gì
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("bob@example.com", null);
+        }
+
+        assertEquals(0, throttle.checkAllowed("bob@example.com", null));
+        assertEquals(5, meterRegistry.get("login.throttle.untracked").counter().count());
+        assertEquals(1, meterRegistry.get("login.throttle.tracked.usernames").gauge().value());
+    }
+
+    @Test
+    void fullTable_shouldMakeRoomByDroppingIdleWindows() throws InterruptedException {
+        // Cửa sổ 30 ms: lần sai của alice hết hạn rất nhanh
+        LoginAttemptThrottle throttle = throttle(Duration.ofMillis(30), 1, Duration.ofSeconds(1));
+        throttle.recordFailure("alice@example.com", null);
+        Thread.sleep(50);
+
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("bob@example.com", null);
+        }
+
+        assertTrue(throttle.checkAllowed("bob@example.com", null) > 0);
+        assertEquals(0, meterRegistry.get("login.throttle.untracked").counter().count());
+        assertEquals(1, meterRegistry.get("login.throttle.tracked.usernames").gauge().value());
+    }
+
+    private static MockHttpServletRequest login(String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setServletPath("/api/auth/login");
+        request.setParameter("username", username);
+        request.setRemoteAddr("10.0.0.50");
+        return request;
+    }
+}
@@ -1,5 +1,6 @@
 package com.demo.pet;
 
+import com.demo.pet.controllers.MedicalRecordController;
 import com.demo.pet.dtos.MedicalRecordDTO;
 import com.demo.pet.services.MedicalRecordService;
 import org.junit.jupiter.api.BeforeEach;
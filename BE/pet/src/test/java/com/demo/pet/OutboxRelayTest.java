@@ -0,0 +1,155 @@
+package com.demo.pet;
+
+import com.demo.pet.events.DomainEvent;
+import com.demo.pet.events.DomainEventSubscriber;
+import com.demo.pet.events.DomainEventType;
+import com.demo.pet.events.OutboxRelay;
+import com.demo.pet.models.OutboxEvent;
+import com.demo.pet.repositories.OutboxEventRepo;
+import com.demo.pet.repositories.OutboxRelayLeaseRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private static final int AGGREGATES = 5;
+
+    // Bảng outbox và bảng lease dùng chung cho mọi relay, như hai node cùng một database
+    private final Map<Long, OutboxEvent> table = new ConcurrentHashMap<>();
+    private final OutboxEventRepo outboxEventRepo = mock(OutboxEventRepo.class);
+    private final OutboxRelayLeaseRepo leaseRepo = mock(OutboxRelayLeaseRepo.class);
+    private String leaseOwner;
+    private LocalDateTime leaseUntil;
+
+    private final List<DomainEvent> delivered = new CopyOnWriteArrayList<>();
+    private final DomainEventSubscriber subscriber = delivered::add;
+
+    OutboxRelayTest() {
+        when(outboxEventRepo.findByPublishedAtIsNullOrderByIdAsc(any())).thenAnswer(invocation -> {
+            Pageable page = invocation.getArgument(0);
+            return table.values().stream()
+                    .filter(e -> e.getPublishedAt() == null)
+                    .sorted(Comparator.comparing(OutboxEvent::getId))
+                    .limit(page.getPageSize())
+                    .collect(Collectors.toList());
+        });
+        when(outboxEventRepo.markPublished(anyCollection(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            ids.forEach(id -> table.get(id).setPublishedAt(invocation.getArgument(1)));
+            return ids.size();
+        });
+        when(leaseRepo.tryAcquire(anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+            synchronized (this) {
+                String owner = invocation.getArgument(1);
+                LocalDateTime now = invocation.getArgument(3);
+                if (owner.equals(leaseOwner) || leaseUntil == null || leaseUntil.isBefore(now)) {
+                    leaseOwner = owner;
+                    leaseUntil = invocation.getArgument(2);
+                    return 1;
+                }
+                return 0;
+            }
+        });
+    }
+
+    private OutboxRelay relay() {
+        return new OutboxRelay(outboxEventRepo, leaseRepo, List.of(subscriber), 50, 10, Duration.ofDays(7), 4,
+                Duration.ofSeconds(30));
+    }
+
+    private void insert(int count) {
+        for (int i = 0; i < count; i++) {
+            long id = table.size() + 1;
+            OutboxEvent event = OutboxEvent.builder()
+                    .aggregateType("ServiceBooking").aggregateId(id % AGGREGATES)
+                    .eventType(DomainEventType.BOOKING_STATUS_CHANGED.name()).payload("{}")
+                    .build();
+            event.setId(id);
+            event.setCreatedAt(LocalDateTime.now());
+            table.put(id, event);
+        }
+    }
+
+    private boolean drained() {
+        return table.values().stream().allMatch(e -> e.getPublishedAt() != null);
+    }
+
+    @Test
+    void twoRelaysOnOneTable_shouldDeliverEachEventOnceInAggregateOrder() throws Exception {
+        insert(400);
+        OutboxRelay first = relay();
+        OutboxRelay second = relay();
+        ExecutorService nodes = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> runs = new ArrayList<>();
+            for (OutboxRelay relay : List.of(first, second)) {
+                runs.add(nodes.submit(() -> {
+                    start.await();
+                    // Mỗi node chạy drain theo lịch của nó cho tới khi bảng trống
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                    while (!drained() && System.nanoTime() < deadline) {
+                        relay.drain();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> run : runs) {
+                run.get(15, TimeUnit.SECONDS);
+            }
+        } finally {
+            nodes.shutdownNow();
+        }
+
+        assertTrue(drained());
+        assertEquals(400, delivered.size());
+        assertEquals(400, delivered.stream().map(DomainEvent::id).distinct().count());
+        Map<Long, List<Long>> byAggregate = delivered.stream().collect(Collectors.groupingBy(
+                DomainEvent::aggregateId, Collectors.mapping(DomainEvent::id, Collectors.toList())));
+        byAggregate.values().forEach(ids ->
+                assertEquals(ids.stream().sorted().toList(), ids, "events of one aggregate out of order"));
+    }
+
+    @Test
+    void standbyRelay_shouldTakeOverOnceTheLeaseLapses() {
+        OutboxRelay first = relay();
+        OutboxRelay second = relay();
+        insert(10);
+        first.drain();
+        assertEquals(10, delivered.size());
+
+        insert(10);
+        second.drain();
+        assertEquals(10, delivered.size(), "standby relay drained while the lease was held");
+
+        // Node đầu dừng mà không nhả lease: node kia nhận sau khi lease hết hạn
+        synchronized (this) {
+            leaseUntil = LocalDateTime.now().minusSeconds(1);
+        }
+        second.drain();
+        assertEquals(20, delivered.size());
+        assertTrue(drained());
+        verify(leaseRepo, never()).release(anyString(), anyString());
+    }
+}
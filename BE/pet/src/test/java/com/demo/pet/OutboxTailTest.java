@@ -0,0 +1,103 @@
+package com.demo.pet;
+
+import com.demo.pet.events.OutboxTail;
+import com.demo.pet.models.OutboxEvent;
+import com.demo.pet.repositories.OutboxEventRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OutboxTailTest {
+
+    // Các row đã commit, theo id
+    private final Map<Long, OutboxEvent> committed = new TreeMap<>();
+    private final OutboxEventRepo outboxEventRepo = mock(OutboxEventRepo.class);
+    private final OutboxTail tail = new OutboxTail(outboxEventRepo, 100, Duration.ofSeconds(5));
+
+    OutboxTailTest() {
+        when(outboxEventRepo.findMaxId()).thenAnswer(invocation ->
+                committed.keySet().stream().max(Comparator.naturalOrder()).orElse(null));
+        when(outboxEventRepo.findByIdGreaterThanOrderByIdAsc(anyLong(), any())).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return committed.values().stream().filter(e -> e.getId() > after).limit(page.getPageSize()).toList();
+        });
+    }
+
+    private void commit(long id, LocalDateTime createdAt) {
+        OutboxEvent event = OutboxEvent.builder().aggregateType("ServiceBooking").aggregateId(id)
+                .eventType("BOOKING_STATUS_CHANGED").payload("{}").build();
+        event.setId(id);
+        event.setCreatedAt(createdAt);
+        committed.put(id, event);
+    }
+
+    private static List<Long> ids(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).toList();
+    }
+
+    @Test
+    void firstPoll_shouldStartAfterTheNewestEvent() {
+        commit(1, LocalDateTime.now());
+        commit(2, LocalDateTime.now());
+
+        assertEquals(List.of(), tail.poll());
+
+        commit(3, LocalDateTime.now());
+        assertEquals(List.of(3L), ids(tail.poll()));
+        assertEquals(List.of(), tail.poll());
+    }
+
+    @Test
+    void lowerIdCommittedLater_shouldStillBeReturnedOnce() {
+        tail.poll();
+        commit(1, LocalDateTime.now());
+        commit(3, LocalDateTime.now());
+
+        // Id 2 đã được cấp nhưng transaction chưa commit
+        assertEquals(List.of(1L, 3L), ids(tail.poll()));
+
+        commit(2, LocalDateTime.now());
+        assertEquals(List.of(2L), ids(tail.poll()));
+        assertEquals(List.of(), tail.poll());
+        // Khoảng trống đã lấp: lần sau chỉ đọc sau id 3
+        verify(outboxEventRepo).findByIdGreaterThanOrderByIdAsc(eq(3L), any());
+    }
+
+    @Test
+    void gapOlderThanTheGrace_shouldBeTakenAsRolledBack() {
+        tail.poll();
+        commit(1, LocalDateTime.now());
+        commit(3, LocalDateTime.now().minusSeconds(10));
+
+        assertEquals(List.of(1L, 3L), ids(tail.poll()));
+        tail.poll();
+
+        // Con trỏ đã qua id 3, id 2 không còn được chờ
+        verify(outboxEventRepo, atLeastOnce()).findByIdGreaterThanOrderByIdAsc(eq(3L), any());
+    }
+
+    @Test
+    void reset_shouldSkipWhatHappenedWhileStopped() {
+        tail.poll();
+        commit(1, LocalDateTime.now());
+        tail.reset();
+        commit(2, LocalDateTime.now());
+
+        assertEquals(List.of(), tail.poll());
+        commit(3, LocalDateTime.now());
+        assertEquals(List.of(3L), ids(tail.poll()));
+    }
+}
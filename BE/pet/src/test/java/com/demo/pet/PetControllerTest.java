@@ -1,5 +1,6 @@
 package com.demo.pet;
 
+import com.demo.pet.controllers.PetController;
 import com.demo.pet.dtos.PetDTO;
 import com.demo.pet.services.PetService;
 import org.junit.jupiter.api.BeforeEach;
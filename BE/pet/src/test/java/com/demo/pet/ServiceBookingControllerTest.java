@@ -1,7 +1,9 @@
 package com.demo.pet;
 
+import com.demo.pet.controllers.ServiceBookingController;
 import com.demo.pet.dtos.ServiceBookingDTO;
 import com.demo.pet.dtos.subDTO.BookingStatusDTO;
+import com.demo.pet.models.ServiceBooking;
 import com.demo.pet.services.ServiceBookingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -40,7 +43,12 @@ class ServiceBookingControllerTest {
                 LocalDate.now().plusDays(7),
                 "Regular grooming service",
                 1L,
-                2L
+                2L,
+                5L,
+                "Milo",
+                ServiceBooking.SubscriptionStatus.PENDING,
+                "Grooming",
+                150000.0
         );
 
         ServiceBookingDTO secondBooking = new ServiceBookingDTO(
@@ -49,7 +57,12 @@ class ServiceBookingControllerTest {
                 LocalDate.now().plusDays(5),
                 "Checkup and vaccines",
                 2L,
-                3L
+                3L,
+                null,
+                null,
+                ServiceBooking.SubscriptionStatus.ACCEPTED,
+                "Vaccination",
+                200000.0
         );
 
         bookingDTOList = Arrays.asList(bookingDTO, secondBooking);
@@ -66,6 +79,16 @@ class ServiceBookingControllerTest {
         verify(bookingService).getAllBookings();
     }
 
+    @Test
+    void getArchivedBookings_shouldReturnPageBeforeGivenId() {
+        when(bookingService.getArchivedBookings(50L, 2)).thenReturn(Arrays.asList(bookingDTOList.get(1), bookingDTO));
+
+        ResponseEntity<List<ServiceBookingDTO>> response = bookingController.getArchivedBookings(50L, 2);
+
+        assertEquals(2, response.getBody().size());
+        verify(bookingService).getArchivedBookings(50L, 2);
+    }
+
     @Test
     void getBookingById_shouldReturnBooking() {
         when(bookingService.getBookingById(1L)).thenReturn(bookingDTO);
@@ -169,4 +192,15 @@ class ServiceBookingControllerTest {
         assertEquals(1L, response.getBody().get(0).getId());
         verify(bookingService).getMyBookings();
     }
+
+    @Test
+    void streamStatusChanges_shouldReturnEmitter() {
+        SseEmitter emitter = new SseEmitter();
+        when(bookingService.streamStatusChanges()).thenReturn(emitter);
+
+        SseEmitter response = bookingController.streamStatusChanges();
+
+        assertSame(emitter, response);
+        verify(bookingService).streamStatusChanges();
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.demo.pet;
 
+import com.demo.pet.controllers.ServiceController;
 import com.demo.pet.dtos.ServicesDTO;
 import com.demo.pet.services.ServicesService;
 import org.junit.jupiter.api.BeforeEach;
@@ -0,0 +1,189 @@
+package com.demo.pet;
+
+import com.demo.pet.resilience.SingleFlight;
+import com.demo.pet.resilience.SingleFlightRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final long LONG_WINDOW = TimeUnit.MINUTES.toNanos(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private SingleFlight flight(long reuseWindowNanos) {
+        return new SingleFlight("test", reuseWindowNanos, 100, meterRegistry);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("singleflight.calls").tag("outcome", outcome).counter().count();
+    }
+
+    // Chờ follower thật sự đứng đợi leader trước khi cho leader chạy tiếp
+    private void awaitJoined(int followers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("joined") < followers) {
+            assertTrue(System.nanoTime() < deadline, "follower never joined");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void concurrentCalls_shouldRunTheLoaderOnce() throws Exception {
+        SingleFlight flight = flight(0);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> result = List.of("Milo", "Luna");
+
+        Future<List<String>> leader = executor.submit(() -> flight.execute("pets", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return result;
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<List<String>> follower = executor.submit(() -> flight.execute("pets", () -> {
+            loads.incrementAndGet();
+            return List.of();
+        }));
+        awaitJoined(1);
+        release.countDown();
+
+        assertSame(result, leader.get(5, TimeUnit.SECONDS));
+        assertSame(result, follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(1, count("leader"));
+    }
+
+    @Test
+    void leaderFailure_shouldBeRethrownToFollowers_andNotReused() throws Exception {
+        SingleFlight flight = flight(LONG_WINDOW);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalArgumentException notFound = new IllegalArgumentException("Pet not found");
+
+        Future<Object> leader = executor.submit(() -> flight.execute("pet:9", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            throw notFound;
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<Object> follower = executor.submit(() -> flight.execute("pet:9", () -> {
+            loads.incrementAndGet();
+            return "unexpected";
+        }));
+        awaitJoined(1);
+        release.countDown();
+
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(notFound, leaderError.getCause());
+        assertSame(notFound, followerError.getCause());
+        assertEquals(1, loads.get());
+
+        // Lỗi không được dùng lại: lần gọi sau chạy query mới
+        assertEquals("found", flight.execute("pet:9", () -> {
+            loads.incrementAndGet();
+            return "found";
+        }));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void resultWithinReuseWindow_shouldBeReused_untilInvalidated() {
+        SingleFlight flight = flight(LONG_WINDOW);
+
+        assertEquals("v1", flight.execute("services", () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", flight.execute("services", () -> "v" + loads.incrementAndGet()));
+        assertEquals(1, count("reused"));
+
+        flight.invalidate("services");
+
+        assertEquals("v2", flight.execute("services", () -> "v" + loads.incrementAndGet()));
+    }
+
+    @Test
+    void zeroReuseWindow_shouldOnlyCollapseOverlappingCalls() {
+        SingleFlight flight = flight(0);
+
+        assertEquals("v1", flight.execute("services", () -> "v" + loads.incrementAndGet()));
+        assertEquals("v2", flight.execute("services", () -> "v" + loads.incrementAndGet()));
+    }
+
+    @Test
+    void readDuringWriteTransaction_shouldNotBeReusedAfterCommit() {
+        SingleFlight flight = flight(LONG_WINDOW);
+        assertEquals("before", flight.execute("pets", () -> "before"));
+
+        // Writer: invalidate trong transaction, trước khi commit
+        TransactionSynchronizationManager.initSynchronization();
+        flight.invalidate("pets");
+        // Một read chạy giữa invalidate và commit vẫn thấy dữ liệu cũ và ghi lại nó
+        assertEquals("stale", flight.execute("pets", () -> "stale"));
+        assertEquals("stale", flight.execute("pets", () -> "unexpected"));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals("after", flight.execute("pets", () -> "after"));
+    }
+
+    @Test
+    void invalidateAll_shouldAlsoRunAfterCommit() {
+        SingleFlight flight = flight(LONG_WINDOW);
+
+        TransactionSynchronizationManager.initSynchronization();
+        flight.invalidateAll();
+        flight.execute("pets", () -> "stale");
+        flight.execute("pet:1", () -> "stale");
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals("after", flight.execute("pets", () -> "after"));
+        assertEquals("after", flight.execute("pet:1", () -> "after"));
+    }
+
+    @Test
+    void registry_shouldShareOneFlightPerName() {
+        SingleFlightRegistry registry = new SingleFlightRegistry(meterRegistry, Duration.ofMillis(250), 100);
+
+        assertSame(registry.forName("pets"), registry.forName("pets"));
+        assertNotSame(registry.forName("pets"), registry.forName("services"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
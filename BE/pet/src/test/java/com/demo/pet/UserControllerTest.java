@@ -1,5 +1,6 @@
 package com.demo.pet;
 
+import com.demo.pet.controllers.UserController;
 import com.demo.pet.dtos.UserDTO;
 import com.demo.pet.dtos.subDTO.UserRoleDTO;
 import com.demo.pet.services.UserService;
@@ -42,8 +42,7 @@ import { DatePicker } from '@mui/x-date-pickers/DatePicker';
 import dayjs from 'dayjs';
 import apiService from '../../services/api';
 import useAuthStore from '../../stores/authStore';
-import type { ServiceBooking, BookingStatus, Pet, Service, User } from '../../types/api';
-import { petBookingStorage } from '../../utils/petBookingStorage';
+import type { ServiceBooking, BookingStatus, BookingStatusChange, Pet, Service, User } from '../../types/api';
 
 const AllBookingsPage: React.FC = () => {
   const { user, isOwner } = useAuthStore();
@@ -70,6 +69,26 @@ const AllBookingsPage: React.FC = () => {
     loadData();
   }, []);
 
+  // Live status updates instead of polling; after a reconnect, reload to pick up missed changes
+  useEffect(() => {
+    const source = apiService.openBookingStatusStream();
+    let reconnecting = false;
+    source.addEventListener('booking-status', (event) => {
+      const change: BookingStatusChange = JSON.parse((event as MessageEvent).data);
+      setBookings(prev => prev.map(b => (b.id === change.booking_id ? { ...b, status: change.status } : b)));
+    });
+    source.onerror = () => {
+      reconnecting = true;
+    };
+    source.onopen = () => {
+      if (reconnecting) {
+        reconnecting = false;
+        loadData();
+      }
+    };
+    return () => source.close();
+  }, []);
+
   const loadData = async () => {
     try {
       setLoading(true);
@@ -83,9 +102,9 @@ const AllBookingsPage: React.FC = () => {
         bookingsData = await apiService.getAllBookings();
       }
       
-      // Load related data - always load all pets for admin/staff to see pet names in bookings
+      // Pets and services fill the form selects; booking rows already carry their names
       const [petsData, servicesData, usersData] = await Promise.all([
-        apiService.getAllPets(), // Always load all pets for name lookup
+        apiService.getAllPets(),
         apiService.getAllServices(),
         isOwner() ? Promise.resolve([]) : apiService.getAllUsers(),
       ]);
@@ -117,30 +136,7 @@ const AllBookingsPage: React.FC = () => {
     }
   };
 
-  const getPetName = (booking: ServiceBooking) => {
-    // First, try to get pet info from temporary storage
-    const storedPet = petBookingStorage.getPetForBooking(booking.id);
-    if (storedPet) {
-      return `${storedPet.name} (${storedPet.species})`;
-    }
-
-    // Fallback: try to find pet by the booking's pet_id if it exists
-    if (booking.pet_id) {
-      const pet = pets.find(p => p.id === booking.pet_id);
-      if (pet) {
-        // Store this association for future use
-        petBookingStorage.savePetBookingAssociation(booking.id, pet.id, pet.name, pet.species);
-        return `${pet.name} (${pet.species})`;
-      }
-    }
-
-    return 'No Pet Assigned';
-  };
-
-  const getServiceName = (serviceId: number) => {
-    const service = services.find(s => s.id === serviceId);
-    return service ? service.service_name : `Service #${serviceId}`;
-  };
+  const getPetName = (booking: ServiceBooking) => booking.pet_name ?? 'No Pet Assigned';
 
   const getUserName = (userId: number) => {
     const user = users.find(u => u.id === userId);
@@ -149,7 +145,7 @@ const AllBookingsPage: React.FC = () => {
 
   const getStatusIcon = (status: BookingStatus) => {
     switch (status) {
-      case 'CONFIRMED':
+      case 'ACCEPTED':
         return <CheckCircle sx={{ color: 'success.main' }} />;
       case 'PENDING':
         return <Schedule sx={{ color: 'warning.main' }} />;
@@ -164,7 +160,7 @@ const AllBookingsPage: React.FC = () => {
 
   const getStatusColor = (status: BookingStatus) => {
     switch (status) {
-      case 'CONFIRMED': return 'success';
+      case 'ACCEPTED': return 'success';
       case 'PENDING': return 'warning';
       case 'CANCELLED': return 'error';
       case 'COMPLETED': return 'info';
@@ -221,8 +217,6 @@ const AllBookingsPage: React.FC = () => {
 
     try {
       await apiService.deleteBooking(bookingId);
-      // Remove pet association from storage
-      petBookingStorage.removePetBookingAssociation(bookingId);
       await loadData();
     } catch (err) {
       console.error('Failed to delete booking:', err);
@@ -245,24 +239,12 @@ const AllBookingsPage: React.FC = () => {
     try {
       setError(null);
       
-      let bookingResult: ServiceBooking;
+      // 0 is the "No Pet Assigned" option
+      const payload = { ...formData, pet_id: formData.pet_id || undefined };
       if (selectedBooking) {
-        bookingResult = await apiService.updateBooking(selectedBooking.id, formData);
+        await apiService.updateBooking(selectedBooking.id, payload);
       } else {
-        bookingResult = await apiService.createBooking(formData);
-      }
-      
-      // Save pet association if a pet was selected
-      if (formData.pet_id && formData.pet_id > 0) {
-        const selectedPet = pets.find(p => p.id === formData.pet_id);
-        if (selectedPet) {
-          petBookingStorage.savePetBookingAssociation(
-            bookingResult.id,
-            selectedPet.id,
-            selectedPet.name,
-            selectedPet.species
-          );
-        }
+        await apiService.createBooking(payload);
       }
       
       await loadData();
@@ -361,7 +343,7 @@ const AllBookingsPage: React.FC = () => {
                       <Avatar sx={{ width: 24, height: 24, bgcolor: 'secondary.main' }}>
                         <MedicalServices sx={{ fontSize: 14 }} />
                       </Avatar>
-                      {getServiceName(booking.service_id)}
+                      {booking.service_name}
                     </Box>
                   </TableCell>
                   <TableCell>{formatDate(booking.start_date)}</TableCell>
@@ -515,7 +497,7 @@ const AllBookingsPage: React.FC = () => {
                     }}
                   >
                     <MenuItem value="PENDING">Pending</MenuItem>
-                    <MenuItem value="CONFIRMED">Confirmed</MenuItem>
+                    <MenuItem value="ACCEPTED">Accepted</MenuItem>
                     <MenuItem value="COMPLETED">Completed</MenuItem>
                     <MenuItem value="CANCELLED">Cancelled</MenuItem>
                   </Select>
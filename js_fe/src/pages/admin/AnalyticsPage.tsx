@@ -168,11 +168,11 @@ const AnalyticsPage: React.FC = () => {
     const servicesMap = new Map(services.map(s => [s.id, s]));
 
     // Financial Calculations
-    const paidBookings = bookings.filter(b => b.status === 'COMPLETED' || b.status === 'CONFIRMED');
+    const paidBookings = bookings.filter(b => b.status === 'COMPLETED' || b.status === 'ACCEPTED');
     const completedBookings = bookings.filter(b => b.status === 'COMPLETED');
     const pendingBookings = bookings.filter(b => b.status === 'PENDING');
     const cancelledBookings = bookings.filter(b => b.status === 'CANCELLED');
-    const confirmedBookings = bookings.filter(b => b.status === 'CONFIRMED');
+    const confirmedBookings = bookings.filter(b => b.status === 'ACCEPTED');
 
     let totalRevenue = 0;
     let monthlyRevenue = 0;
@@ -316,7 +316,7 @@ const AnalyticsPage: React.FC = () => {
       });
       
       let monthRevenue = 0;
-      const monthPaidBookings = monthBookings.filter(b => b.status === 'COMPLETED' || b.status === 'CONFIRMED');
+      const monthPaidBookings = monthBookings.filter(b => b.status === 'COMPLETED' || b.status === 'ACCEPTED');
       monthPaidBookings.forEach(booking => {
         const service = servicesMap.get(booking.service_id);
         if (service && service.price > 0) {
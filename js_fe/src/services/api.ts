@@ -14,7 +14,6 @@ import type {
   ServiceBooking,
   ServiceBookingCreateRequest,
   BookingStatus,
-  BookingStatusResponse,
   MedicalRecord,
   MedicalRecordCreateRequest,
   Cage,
@@ -250,16 +249,17 @@ class ApiService {
     return response.data;
   }
 
-  async getBookingStatus(id: number): Promise<BookingStatusResponse> {
-    const response = await this.api.get<BookingStatusResponse>(`/bookings/${id}/status`);
-    return response.data;
-  }
-
   async updateBookingStatus(id: number, status: BookingStatus): Promise<ServiceBooking> {
     const response = await this.api.patch<ServiceBooking>(`/bookings/${id}/status?status=${status}`);
     return response.data;
   }
 
+  // Server-sent events of booking status changes (own bookings for owners, all for staff).
+  // EventSource does not go through axios, so the /api prefix is spelled out here.
+  openBookingStatusStream(): EventSource {
+    return new EventSource('/api/bookings/stream', { withCredentials: true });
+  }
+
   // Medical Record endpoints
   async getAllMedicalRecords(): Promise<MedicalRecord[]> {
     const response = await this.api.get<MedicalRecord[]>('/records');
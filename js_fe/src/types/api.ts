@@ -37,7 +37,7 @@ export interface ServiceCreateRequest {
 }
 
 // Booking status type
-export type BookingStatus = 'PENDING' | 'CONFIRMED' | 'CANCELLED' | 'COMPLETED';
+export type BookingStatus = 'PENDING' | 'ACCEPTED' | 'CANCELLED' | 'COMPLETED';
 
 // Booking related types
 export interface ServiceBooking {
@@ -49,6 +49,17 @@ export interface ServiceBooking {
   user_id: number;
   service_id: number;
   pet_id?: number;
+  pet_name?: string;
+  service_name: string;
+  service_price?: number;
+}
+
+// Pushed on /api/bookings/stream (event "booking-status")
+export interface BookingStatusChange {
+  booking_id: number;
+  user_id: number;
+  previous_status: BookingStatus | null;
+  status: BookingStatus;
 }
 
 export interface ServiceBookingCreateRequest {
@@ -60,11 +71,6 @@ export interface ServiceBookingCreateRequest {
   pet_id?: number;
 }
 
-export interface BookingStatusResponse {
-  id: number;
-  status: BookingStatus;
-}
-
 // Medical Record related types
 export interface MedicalRecord {
   id: number;